@@ -0,0 +1,57 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI.benchmarks;
+
+import org.bukkit.Location;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Synchronous plugin-internal event happening at a location.
+ */
+public class BenchLocationEvent extends Event {
+    private static final HandlerList handlers = new HandlerList();
+    private final Location location;
+    private int hits = 0;
+
+    public BenchLocationEvent(@NotNull Location location) {
+        this.location = location;
+    }
+
+    @NotNull
+    public Location getLocation() {
+        return location;
+    }
+
+    public void hit() {
+        hits++;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return handlers;
+    }
+}
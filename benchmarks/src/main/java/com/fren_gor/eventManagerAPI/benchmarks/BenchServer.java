@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI.benchmarks;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.SimplePluginManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.logging.Logger;
+
+/**
+ * Minimal bukkit server for the benchmarks, which uses the real {@link SimplePluginManager}
+ * so that the bukkit path is measured as it runs on a server.
+ */
+final class BenchServer {
+
+    private static final PluginManager PLUGIN_MANAGER;
+
+    static {
+        Logger logger = Logger.getLogger("benchmarks");
+        logger.setUseParentHandlers(false);
+        PluginManager[] pluginManager = new PluginManager[1];
+        Server server = proxy(Server.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getPluginManager":
+                    return pluginManager[0];
+                case "getLogger":
+                    return logger;
+                case "isPrimaryThread":
+                    return true;
+                default:
+                    return defaultValue(method);
+            }
+        });
+        pluginManager[0] = PLUGIN_MANAGER = new SimplePluginManager(server, new SimpleCommandMap(server));
+        Bukkit.setServer(server);
+    }
+
+    /**
+     * @return A new enabled {@link Plugin}.
+     */
+    @NotNull
+    static Plugin newPlugin() {
+        return proxy(Plugin.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "isEnabled":
+                    return true;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return defaultValue(method);
+            }
+        });
+    }
+
+    @NotNull
+    static PluginManager getPluginManager() {
+        return PLUGIN_MANAGER;
+    }
+
+    @NotNull
+    private static <T> T proxy(@NotNull Class<T> clazz, @NotNull InvocationHandler handler) {
+        return clazz.cast(Proxy.newProxyInstance(BenchServer.class.getClassLoader(), new Class<?>[]{clazz}, handler));
+    }
+
+    private static Object defaultValue(@NotNull Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class)
+            return false;
+        if (type.isPrimitive() && type != void.class)
+            return Array.get(Array.newInstance(type, 1), 0);
+        if (type == String.class)
+            return "benchmarks";
+        return null;
+    }
+
+    private BenchServer() {
+    }
+}
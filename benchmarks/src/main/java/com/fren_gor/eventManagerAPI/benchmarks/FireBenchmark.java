@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI.benchmarks;
+
+import com.fren_gor.eventManagerAPI.EventManager;
+import org.bukkit.event.EventPriority;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link EventManager#fire(org.bukkit.event.Event)} with calling the same event through bukkit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FireBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int consumers;
+
+    private EventManager api;
+    private BenchEvent event;
+
+    @Setup
+    public void setup() {
+        api = new EventManager(BenchServer.newPlugin());
+        EventPriority[] priorities = EventPriority.values();
+        for (int i = 0; i < consumers; i++) {
+            api.register(new Object(), BenchEvent.class, priorities[i % priorities.length], BenchEvent::hit);
+        }
+        event = new BenchEvent();
+    }
+
+    @TearDown
+    public void tearDown() {
+        api.disable();
+    }
+
+    @Benchmark
+    public BenchEvent pluginManager() {
+        BenchServer.getPluginManager().callEvent(event);
+        return event;
+    }
+
+    @Benchmark
+    public BenchEvent fire() {
+        return api.fire(event);
+    }
+}
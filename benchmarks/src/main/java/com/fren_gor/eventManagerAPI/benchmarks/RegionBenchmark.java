@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI.benchmarks;
+
+import com.fren_gor.eventManagerAPI.EventManager;
+import com.fren_gor.eventManagerAPI.Region;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.util.BoundingBox;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares region registrations with consumers checking their own region, for a grid of non-overlapping
+ * regions of 16x16 blocks. The consumers of the baseline compare the world of the location by identity and then check
+ * only the coordinates, so that it doesn't pay for looking up the name of the world in every consumer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegionBenchmark {
+
+    private static final Function<BenchLocationEvent, Location> LOCATOR = BenchLocationEvent::getLocation;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int regions;
+
+    private EventManager indexed, linear;
+    private BenchLocationEvent event;
+
+    @Setup
+    public void setup() {
+        World world = (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[]{World.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return "world";
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return null;
+            }
+        });
+        indexed = new EventManager(BenchServer.newPlugin());
+        linear = new EventManager(BenchServer.newPlugin());
+        int side = (int) Math.ceil(Math.sqrt(regions));
+        for (int i = 0; i < regions; i++) {
+            int x = (i % side) * 16, z = (i / side) * 16;
+            Region region = Region.of(world, new BoundingBox(x, 0, z, x + 16, 256, z + 16));
+            indexed.register(new Object(), BenchLocationEvent.class, region, LOCATOR, BenchLocationEvent::hit);
+            linear.register(new Object(), BenchLocationEvent.class, e -> {
+                Location location = e.getLocation();
+                if (location.getWorld() == world && region.contains(location.getX(), location.getY(), location.getZ())) {
+                    e.hit();
+                }
+            });
+        }
+        // Pick a location inside the last region
+        int last = regions - 1;
+        event = new BenchLocationEvent(new Location(world, (last % side) * 16 + 8, 64, (last / side) * 16 + 8));
+    }
+
+    @TearDown
+    public void tearDown() {
+        indexed.disable();
+        linear.disable();
+    }
+
+    @Benchmark
+    public BenchLocationEvent linear() {
+        return linear.fire(event);
+    }
+
+    @Benchmark
+    public BenchLocationEvent indexed() {
+        return indexed.fire(event);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI.flow;
+
+import com.fren_gor.eventManagerAPI.EventManager;
+import com.fren_gor.eventManagerAPI.EventStream;
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Flow.Publisher} of the values of an {@link EventStream}, with back-pressure.
+ * <p>Every {@link Flow.Subscriber} subscribes to the stream on its own. Values are delivered on the thread calling the event
+ * while the subscriber has requested more values, otherwise they are buffered. When the buffer is full, new values are dropped,
+ * since the thread calling the event cannot wait for the subscriber. Buffered values are delivered by {@link Flow.Subscription#request(long)}.
+ * <p>Streams never complete. Cancelling a subscription unregisters it from the {@link EventManager}.
+ * <p>This class is part of the {@code eventmanagerapi-flow} module, which requires Java 9 or later.
+ *
+ * @param <T> The type of the values of the stream.
+ */
+public final class EventPublisher<T> implements Flow.Publisher<T> {
+
+    private final EventStream<T> stream;
+    private final int bufferSize;
+
+    private EventPublisher(@NotNull EventStream<T> stream, int bufferSize) {
+        this.stream = stream;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Creates a {@link Flow.Publisher} of the values of an {@link EventStream}.
+     *
+     * @param stream The stream.
+     * @param bufferSize The maximum number of values buffered for every subscriber.
+     * @param <T> The type of the values of the stream.
+     * @return A new {@link EventPublisher}.
+     * @throws IllegalArgumentException If stream is null or the buffer size is not positive.
+     */
+    @NotNull
+    public static <T> EventPublisher<T> of(@NotNull EventStream<T> stream, int bufferSize) throws IllegalArgumentException {
+        Preconditions.checkNotNull(stream, "EventStream cannot be null.");
+        Preconditions.checkArgument(bufferSize > 0, "Buffer size must be positive.");
+        return new EventPublisher<>(stream, bufferSize);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber is null.");
+        EventSubscription<T> subscription = new EventSubscription<>(stream.getManager(), subscriber, bufferSize);
+        subscriber.onSubscribe(subscription);
+        try {
+            stream.subscribe(subscription, subscription::onValue);
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            subscription.fail(e);
+        }
+    }
+
+    private static final class EventSubscription<T> implements Flow.Subscription {
+
+        private final EventManager manager;
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Queue<T> queue;
+        private final AtomicLong requested = new AtomicLong();
+        // Serializes the calls to the subscriber, whichever thread is delivering the values
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled = false;
+        private volatile Throwable error;
+
+        public EventSubscription(@NotNull EventManager manager, @NotNull Flow.Subscriber<? super T> subscriber, int bufferSize) {
+            this.manager = manager;
+            this.subscriber = subscriber;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        public void onValue(@NotNull T value) {
+            if (!cancelled && queue.offer(value)) {
+                drain();
+            }
+        }
+
+        public void fail(@NotNull Throwable t) {
+            error = t;
+            cancel();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Requested a non-positive number of values: " + n));
+                return;
+            }
+            long r, u;
+            do {
+                r = requested.get();
+                u = r + n;
+                if (u < 0)
+                    u = Long.MAX_VALUE;
+            } while (!requested.compareAndSet(r, u));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            // The subscription may be cancelled by the subscriber while an asynchronous event is calling it,
+            // so it's unregistered from another thread
+            CompletableFuture.runAsync(() -> {
+                if (manager.isEnabled()) {
+                    try {
+                        manager.unregister(this);
+                    } catch (IllegalStateException ignored) {
+                        // Disabled in the meantime
+                    }
+                }
+            });
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                long r = requested.get();
+                long e = 0;
+                while (true) {
+                    if (cancelled) {
+                        queue.clear();
+                        Throwable t = error;
+                        if (t != null) {
+                            error = null;
+                            subscriber.onError(t);
+                        }
+                        // Leave wip set, so that nothing is delivered anymore
+                        return;
+                    }
+                    if (e == r) {
+                        break;
+                    }
+                    T value = queue.poll();
+                    if (value == null) {
+                        break;
+                    }
+                    try {
+                        subscriber.onNext(value);
+                    } catch (Throwable t) {
+                        cancel();
+                        throw t;
+                    }
+                    e++;
+                }
+                if (e != 0 && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fren_gor.eventManagerAPI.flow.test;
+
+import com.fren_gor.eventManagerAPI.EventManager;
+import com.fren_gor.eventManagerAPI.flow.EventPublisher;
+import com.fren_gor.eventManagerAPI.test.FakeEvent1;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventPriority;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class EventPublisherTest {
+
+    @Test
+    public void publisherTest() {
+        EventManager api = new EventManager(newPlugin());
+        try {
+            PluginManager impl = Bukkit.getPluginManager();
+            AtomicInteger sequence = new AtomicInteger();
+            List<Integer> values = new ArrayList<>();
+            Flow.Subscription[] subscription = new Flow.Subscription[1];
+
+            EventPublisher.of(api.stream(FakeEvent1.class, EventPriority.LOWEST).map(e -> sequence.incrementAndGet()), 2).subscribe(new Flow.Subscriber<Integer>() {
+                @Override
+                public void onSubscribe(Flow.Subscription s) {
+                    subscription[0] = s;
+                    s.request(1);
+                }
+
+                @Override
+                public void onNext(Integer item) {
+                    values.add(item);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    fail();
+                }
+
+                @Override
+                public void onComplete() {
+                    fail();
+                }
+            });
+
+            for (int i = 0; i < 4; i++) {
+                impl.callEvent(new FakeEvent1());
+            }
+            // Values are buffered while there is no demand, then dropped
+            assertEquals(Arrays.asList(1), values);
+            subscription[0].request(5);
+            assertEquals(Arrays.asList(1, 2, 3), values);
+            impl.callEvent(new FakeEvent1());
+            assertEquals(Arrays.asList(1, 2, 3, 5), values);
+
+            subscription[0].cancel();
+            impl.callEvent(new FakeEvent1());
+            assertEquals(Arrays.asList(1, 2, 3, 5), values);
+        } finally {
+            api.disable();
+        }
+    }
+
+    private static Plugin newPlugin() {
+        return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "isEnabled":
+                    return true;
+                case "getName":
+                    return "EventPublisherTest";
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "EventPublisherTest";
+                default:
+                    return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI.jcstress;
+
+import com.fren_gor.eventManagerAPI.EventManager;
+import org.bukkit.event.EventPriority;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Description("clearEventListener and unregisterEvent race on the same event. No consumer must survive " +
+        "and a new registration must work afterwards.")
+@Outcome(id = "0, 1", expect = ACCEPTABLE, desc = "Every consumer has been removed and the event can be registered again.")
+@Outcome(expect = FORBIDDEN, desc = "A consumer survived or a new registration has been lost.")
+@State
+public class ClearVsUnregisterEventTest {
+
+    private final Plugin plugin = Harness.newPlugin();
+    private final EventManager api = new EventManager(plugin);
+
+    public ClearVsUnregisterEventTest() {
+        api.register(this, TestEvent.class, TestEvent::hit);
+        api.register(this, TestEvent.class, EventPriority.HIGH, TestEvent::hit);
+    }
+
+    @Actor
+    public void clear() {
+        api.clearEventListener(TestEvent.class);
+    }
+
+    @Actor
+    public void unregisterEvent() {
+        api.unregisterEvent(TestEvent.class);
+    }
+
+    @Arbiter
+    public void arbiter(II_Result r) {
+        TestEvent e = new TestEvent();
+        Harness.call(plugin, e);
+        r.r1 = e.getHits();
+
+        api.register(this, TestEvent.class, TestEvent::hit);
+        e = new TestEvent();
+        Harness.call(plugin, e);
+        r.r2 = e.getHits();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI.jcstress;
+
+import com.fren_gor.eventManagerAPI.EventManager;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.III_Result;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Description("disable() races with the PluginDisableEvent consumer and a registration. The manager must end up disabled " +
+        "without any registered event, whether the registration has succeeded or not.")
+@Outcome(id = {"0, 0, 0", "1, 0, 0"}, expect = ACCEPTABLE, desc = "The manager is disabled and empty.")
+@Outcome(expect = FORBIDDEN, desc = "The manager is still enabled or an event has been registered after disabling.")
+@State
+public class DisableVsRegisterTest {
+
+    private final Plugin plugin = Harness.newPlugin();
+    private final EventManager api = new EventManager(plugin);
+
+    @Actor
+    public void disable() {
+        api.disable();
+    }
+
+    @Actor
+    public void pluginDisable() {
+        Harness.call(plugin, new PluginDisableEvent(plugin));
+    }
+
+    @Actor
+    public void register(III_Result r) {
+        try {
+            api.register(new Object(), TestEvent.class, TestEvent::hit);
+            r.r1 = 1;
+        } catch (IllegalStateException e) {
+            r.r1 = 0;
+        }
+    }
+
+    @Arbiter
+    public void arbiter(III_Result r) {
+        r.r2 = api.isEnabled() ? 1 : 0;
+        r.r3 = api.getLockMetrics().size();
+    }
+
+    @JCStressTest
+    @Description("The PluginDisableEvent consumer races with a registration to an event which is already registered, " +
+            "so the registration doesn't take the global lock. The consumer must not be left in a group which isn't hooked anymore.")
+    @Outcome(id = {"0, 0", "1, 0"}, expect = ACCEPTABLE, desc = "The registration has failed, or it has succeeded and has been removed by the disable.")
+    @Outcome(expect = FORBIDDEN, desc = "The consumer has been registered to an orphaned group and is still called.")
+    @State
+    public static class AlreadyRegistered {
+
+        private final Plugin plugin = Harness.newPlugin();
+        private final EventManager api = new EventManager(plugin);
+
+        public AlreadyRegistered() {
+            api.register(new Object(), TestEvent.class, e -> {});
+        }
+
+        @Actor
+        public void pluginDisable() {
+            Harness.call(plugin, new PluginDisableEvent(plugin));
+        }
+
+        @Actor
+        public void register(II_Result r) {
+            try {
+                api.register(new Object(), TestEvent.class, TestEvent::hit);
+                r.r1 = 1;
+            } catch (IllegalStateException e) {
+                r.r1 = 0;
+            }
+        }
+
+        @Arbiter
+        public void arbiter(II_Result r) {
+            // The harness doesn't unregister the bukkit listeners, so an orphaned group would still be called
+            TestEvent event = new TestEvent();
+            Harness.call(plugin, event);
+            r.r2 = event.getHits();
+        }
+    }
+}
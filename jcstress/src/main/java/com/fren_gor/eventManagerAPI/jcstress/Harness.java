@@ -0,0 +1,145 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI.jcstress;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+/**
+ * Minimal bukkit environment for the tests.
+ * <p>Every test state uses its own {@link Plugin}, which keeps the bukkit listeners registered with it.
+ * Events are called directly on those listeners, so states never see each other and can be garbage collected.
+ */
+final class Harness {
+
+    static {
+        PluginManager pluginManager = proxy(PluginManager.class, (proxy, method, args) -> {
+            if (method.getName().equals("registerEvent") && args.length == 5) {
+                ((Hooks) Proxy.getInvocationHandler(args[4])).hooks.add(new Hook((Class<?>) args[0], (Listener) args[1], (EventExecutor) args[3]));
+                return null;
+            }
+            return defaultValue(method);
+        });
+        Logger logger = Logger.getLogger("jcstress");
+        logger.setUseParentHandlers(false);
+        Bukkit.setServer(proxy(Server.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getPluginManager":
+                    return pluginManager;
+                case "getLogger":
+                    return logger;
+                case "isPrimaryThread":
+                    return true;
+                default:
+                    return defaultValue(method);
+            }
+        }));
+    }
+
+    /**
+     * @return A new enabled {@link Plugin}.
+     */
+    @NotNull
+    static Plugin newPlugin() {
+        return proxy(Plugin.class, new Hooks());
+    }
+
+    /**
+     * Calls an event on the bukkit listeners registered with the provided plugin for the exact class of the event.
+     *
+     * @param plugin The plugin.
+     * @param event The event to call.
+     */
+    static void call(@NotNull Plugin plugin, @NotNull Event event) {
+        for (Hook h : ((Hooks) Proxy.getInvocationHandler(plugin)).hooks) {
+            if (h.event == event.getClass()) {
+                try {
+                    h.executor.execute(h.listener, event);
+                } catch (EventException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static <T> T proxy(@NotNull Class<T> clazz, @NotNull InvocationHandler handler) {
+        return clazz.cast(Proxy.newProxyInstance(Harness.class.getClassLoader(), new Class<?>[]{clazz}, handler));
+    }
+
+    private static Object defaultValue(@NotNull Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class)
+            return false;
+        if (type == int.class || type == long.class || type == short.class || type == byte.class || type == char.class
+                || type == float.class || type == double.class)
+            return Array.get(Array.newInstance(type, 1), 0);
+        if (type == String.class)
+            return "jcstress";
+        return null;
+    }
+
+    private static final class Hooks implements InvocationHandler {
+
+        private final List<Hook> hooks = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "isEnabled":
+                    return true;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return defaultValue(method);
+            }
+        }
+    }
+
+    private static final class Hook {
+
+        private final Class<?> event;
+        private final Listener listener;
+        private final EventExecutor executor;
+
+        Hook(@NotNull Class<?> event, @NotNull Listener listener, @NotNull EventExecutor executor) {
+            this.event = event;
+            this.listener = listener;
+            this.executor = executor;
+        }
+    }
+
+    private Harness() {
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI.jcstress;
+
+import com.fren_gor.eventManagerAPI.EventManager;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Description("Two consumers are registered while the event is called. The call can see any of them, but none can be lost.")
+@Outcome(id = {"0, 2", "1, 2", "2, 2"}, expect = ACCEPTABLE, desc = "Every registration is visible after the actors have finished.")
+@Outcome(expect = FORBIDDEN, desc = "A registration has been lost.")
+@State
+public class RegisterVsCallTest {
+
+    private final Plugin plugin = Harness.newPlugin();
+    private final EventManager api = new EventManager(plugin);
+
+    public RegisterVsCallTest() {
+        // Hook the event into bukkit before the actors run
+        api.register(this, TestEvent.class, e -> {});
+    }
+
+    @Actor
+    public void registerFirst() {
+        api.register(new Object(), TestEvent.class, TestEvent::hit);
+    }
+
+    @Actor
+    public void registerSecond() {
+        api.register(new Object(), TestEvent.class, TestEvent::hit);
+    }
+
+    @Actor
+    public void call(II_Result r) {
+        TestEvent e = new TestEvent();
+        Harness.call(plugin, e);
+        r.r1 = e.getHits();
+    }
+
+    @Arbiter
+    public void arbiter(II_Result r) {
+        TestEvent e = new TestEvent();
+        Harness.call(plugin, e);
+        r.r2 = e.getHits();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI.jcstress;
+
+import com.fren_gor.eventManagerAPI.EventManager;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.I_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Description("A consumer is unregistered while an asynchronous event is called. It must not run once unregister has returned.")
+@Outcome(id = "0", expect = ACCEPTABLE, desc = "The consumer didn't run after its removal was acknowledged.")
+@Outcome(id = "1", expect = FORBIDDEN, desc = "The consumer ran after its removal was acknowledged.")
+@State
+public class UnregisterVsAsyncCallTest {
+
+    private final Plugin plugin = Harness.newPlugin();
+    private final EventManager api = new EventManager(plugin);
+    private final Object listener = new Object();
+    private volatile boolean removed = false;
+    private volatile int late = 0;
+
+    public UnregisterVsAsyncCallTest() {
+        api.register(listener, TestAsyncEvent.class, e -> {
+            if (removed)
+                late = 1;
+        });
+    }
+
+    @Actor
+    public void unregister() {
+        api.unregister(listener);
+        removed = true;
+    }
+
+    @Actor
+    public void call() {
+        Harness.call(plugin, new TestAsyncEvent());
+    }
+
+    @Arbiter
+    public void arbiter(I_Result r) {
+        r.r1 = late;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Generates a {@code ListenerRegistrar} for every class which declares methods annotated with {@code @Subscribe}.
+ * <p>The generated registrar calls {@code EventManager#register} with method references, so registering
+ * a listener at runtime doesn't need any reflection.
+ * <p>No registrar is generated for classes which have annotated methods that are not accessible from their package
+ * (like private methods). Those classes are still registered by {@code EventManager#registerAll} using reflection.
+ */
+@SupportedAnnotationTypes(SubscribeProcessor.SUBSCRIBE)
+public final class SubscribeProcessor extends AbstractProcessor {
+
+    static final String SUBSCRIBE = "com.fren_gor.eventManagerAPI.Subscribe";
+    private static final String EVENT = "org.bukkit.event.Event";
+    private static final String EVENT_REGISTRY = "com.fren_gor.eventManagerAPI.EventRegistry";
+    private static final String LISTENER_REGISTRAR = "com.fren_gor.eventManagerAPI.ListenerRegistrar";
+    private static final String EVENT_PRIORITY = "org.bukkit.event.EventPriority";
+    private static final String SUFFIX = "_EventRegistrar";
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Elements elements = processingEnv.getElementUtils();
+        TypeElement subscribe = elements.getTypeElement(SUBSCRIBE);
+        TypeElement event = elements.getTypeElement(EVENT);
+        if (subscribe == null || event == null) {
+            return false;
+        }
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(roundEnv.getElementsAnnotatedWith(subscribe))) {
+            types.add((TypeElement) method.getEnclosingElement());
+        }
+        for (TypeElement type : types) {
+            // Anonymous and local classes cannot be referenced by the generated code
+            if (type.getNestingKind() == NestingKind.ANONYMOUS || type.getNestingKind() == NestingKind.LOCAL) {
+                continue;
+            }
+            if (generated.add(type.getQualifiedName().toString())) {
+                process(type, subscribe, event.asType());
+            }
+        }
+        return false;
+    }
+
+    private void process(TypeElement type, TypeElement subscribe, TypeMirror event) {
+        Messager messager = processingEnv.getMessager();
+        Types types = processingEnv.getTypeUtils();
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+
+        boolean accessible = isAccessible(type);
+        List<String> registrations = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (TypeElement c = type; c != null; c = superclass(c)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(c.getEnclosedElements())) {
+                boolean isPrivate = method.getModifiers().contains(Modifier.PRIVATE);
+                // Skip methods overridden by a subclass
+                if (!isPrivate && !seen.add(method.getSimpleName() + erasedParameters(method))) {
+                    continue;
+                }
+                AnnotationMirror annotation = getAnnotation(method, subscribe);
+                if (annotation == null) {
+                    continue;
+                }
+                if (method.getModifiers().contains(Modifier.STATIC)) {
+                    messager.printMessage(Kind.ERROR, "Methods annotated with @Subscribe cannot be static.", method);
+                    return;
+                }
+                if (method.getParameters().size() != 1 || !types.isAssignable(types.erasure(method.getParameters().get(0).asType()), event)) {
+                    messager.printMessage(Kind.ERROR, "Methods annotated with @Subscribe must have an event as their only parameter.", method);
+                    return;
+                }
+                if (isPrivate || !(method.getModifiers().contains(Modifier.PUBLIC) || processingEnv.getElementUtils().getPackageOf(c).equals(pkg))) {
+                    accessible = false;
+                }
+                registrations.add("        manager.register(listener, " + types.erasure(method.getParameters().get(0).asType()) + ".class, "
+                        + EVENT_PRIORITY + '.' + getPriority(annotation) + ", listener::" + method.getSimpleName() + ");");
+            }
+        }
+
+        if (!accessible) {
+            messager.printMessage(Kind.NOTE, "Some methods annotated with @Subscribe are not accessible, " + type.getQualifiedName()
+                    + " will be registered using reflection.", type);
+            return;
+        }
+
+        String flatName = flatName(type);
+        String registrarName = flatName + SUFFIX;
+        String listenerType = types.erasure(type.asType()).toString();
+        try (Writer w = processingEnv.getFiler().createSourceFile(qualify(pkg, registrarName), type).openWriter()) {
+            if (!pkg.isUnnamed()) {
+                w.write("package " + pkg.getQualifiedName() + ";\n\n");
+            }
+            w.write("/**\n");
+            w.write(" * Registers the methods of {@link " + listenerType + "} annotated with {@code @Subscribe}.\n");
+            w.write(" * <p>Generated by " + SubscribeProcessor.class.getName() + ".\n");
+            w.write(" */\n");
+            w.write("public final class " + registrarName + " implements " + LISTENER_REGISTRAR + "<" + listenerType + "> {\n\n");
+            w.write("    public static void register(" + EVENT_REGISTRY + " manager, " + listenerType + " listener) {\n");
+            for (String registration : registrations) {
+                w.write(registration);
+                w.write('\n');
+            }
+            w.write("    }\n\n");
+            w.write("    @Override\n");
+            w.write("    public void registerAll(" + EVENT_REGISTRY + " manager, " + listenerType + " listener) {\n");
+            w.write("        register(manager, listener);\n");
+            w.write("    }\n");
+            w.write("}\n");
+        } catch (IOException e) {
+            messager.printMessage(Kind.ERROR, "Couldn't generate " + registrarName + ": " + e.getMessage(), type);
+        }
+    }
+
+    private static boolean isAccessible(TypeElement type) {
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private String erasedParameters(ExecutableElement method) {
+        Types types = processingEnv.getTypeUtils();
+        StringBuilder builder = new StringBuilder("(");
+        method.getParameters().forEach(p -> builder.append(types.erasure(p.asType())).append(','));
+        return builder.append(')').toString();
+    }
+
+    private static AnnotationMirror getAnnotation(ExecutableElement method, TypeElement annotation) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (mirror.getAnnotationType().asElement().equals(annotation)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private String getPriority(AnnotationMirror annotation) {
+        for (Entry<? extends ExecutableElement, ? extends AnnotationValue> e : processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet()) {
+            if (e.getKey().getSimpleName().contentEquals("priority")) {
+                return ((Element) e.getValue().getValue()).getSimpleName().toString();
+            }
+        }
+        return "NORMAL";
+    }
+
+    private static String flatName(TypeElement type) {
+        StringBuilder builder = new StringBuilder(type.getSimpleName());
+        for (Element e = type.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+            builder.insert(0, '_').insert(0, e.getSimpleName());
+        }
+        return builder.toString();
+    }
+
+    private static String qualify(PackageElement pkg, String name) {
+        return pkg.isUnnamed() ? name : pkg.getQualifiedName() + "." + name;
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI.processor;
+
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class SubscribeProcessorTest {
+
+    @Test
+    public void generationTest() throws Exception {
+        Path dir = compile("MyListener", "package test;\n" +
+                "import com.fren_gor.eventManagerAPI.Subscribe;\n" +
+                "import org.bukkit.event.EventPriority;\n" +
+                "import org.bukkit.event.server.PluginDisableEvent;\n" +
+                "import org.bukkit.event.server.PluginEnableEvent;\n" +
+                "public class MyListener {\n" +
+                "    @Subscribe public void onDisable(PluginDisableEvent e) {}\n" +
+                "    @Subscribe(priority = EventPriority.HIGH) void onEnable(PluginEnableEvent e) {}\n" +
+                "    public static class Inner {\n" +
+                "        @Subscribe public void onDisable(PluginDisableEvent e) {}\n" +
+                "    }\n" +
+                "}\n", true);
+
+        String registrar = new String(Files.readAllBytes(dir.resolve("generated/test/MyListener_EventRegistrar.java")), StandardCharsets.UTF_8);
+        assertTrue(registrar.contains("public final class MyListener_EventRegistrar implements com.fren_gor.eventManagerAPI.ListenerRegistrar<test.MyListener>"));
+        assertTrue(registrar.contains("manager.register(listener, org.bukkit.event.server.PluginDisableEvent.class, org.bukkit.event.EventPriority.NORMAL, listener::onDisable);"));
+        assertTrue(registrar.contains("manager.register(listener, org.bukkit.event.server.PluginEnableEvent.class, org.bukkit.event.EventPriority.HIGH, listener::onEnable);"));
+
+        assertTrue(Files.exists(dir.resolve("classes/test/MyListener_EventRegistrar.class")));
+        assertTrue(Files.exists(dir.resolve("classes/test/MyListener_Inner_EventRegistrar.class")));
+    }
+
+    @Test
+    public void inaccessibleMethodTest() throws Exception {
+        Path dir = compile("PrivateListener", "package test;\n" +
+                "import com.fren_gor.eventManagerAPI.Subscribe;\n" +
+                "import org.bukkit.event.server.PluginDisableEvent;\n" +
+                "public class PrivateListener {\n" +
+                "    @Subscribe private void onDisable(PluginDisableEvent e) {}\n" +
+                "}\n", true);
+
+        // Registered using reflection at runtime
+        assertFalse(Files.exists(dir.resolve("generated/test/PrivateListener_EventRegistrar.java")));
+    }
+
+    @Test
+    public void invalidMethodTest() throws Exception {
+        compile("StaticListener", "package test;\n" +
+                "import com.fren_gor.eventManagerAPI.Subscribe;\n" +
+                "import org.bukkit.event.server.PluginDisableEvent;\n" +
+                "public class StaticListener {\n" +
+                "    @Subscribe public static void onDisable(PluginDisableEvent e) {}\n" +
+                "}\n", false);
+
+        compile("StringListener", "package test;\n" +
+                "import com.fren_gor.eventManagerAPI.Subscribe;\n" +
+                "public class StringListener {\n" +
+                "    @Subscribe public void onString(String s) {}\n" +
+                "}\n", false);
+    }
+
+    private static Path compile(String name, String source, boolean success) throws IOException {
+        Path dir = Files.createTempDirectory("processor-test");
+        Path src = Files.createDirectories(dir.resolve("src/test")).resolve(name + ".java");
+        Files.write(src, source.getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(dir.resolve("classes"));
+        Files.createDirectories(dir.resolve("generated"));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", dir.resolve("classes").toString(), "-s", dir.resolve("generated").toString()),
+                    null, fileManager.getJavaFileObjects(src.toFile()));
+            task.setProcessors(Collections.singletonList(new SubscribeProcessor()));
+            boolean result = task.call();
+            if (result != success) {
+                for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+                    System.err.println(d);
+                }
+            }
+            assertEquals(success, result);
+        }
+        return dir;
+    }
+
+}
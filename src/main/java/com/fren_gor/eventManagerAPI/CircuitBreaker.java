@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time budget and circuit breaker settings of a registration.
+ * <p>Every time the consumer is run longer than its budget or throws an exception, a failure is counted.
+ * After {@link #getFailureThreshold()} consecutive failures the consumer is tripped: it is skipped and reported
+ * for {@link #getCooldown(TimeUnit)}. After the cooldown the consumer is run once again: if it fails
+ * it is tripped immediately, otherwise its failures are forgotten.
+ * <p>By default, the running time is only checked after the consumer has returned. With {@link #withHardTimeout(boolean)},
+ * consumers of asynchronous events are run on the executor set using {@link EventManager#setParallelExecutor(java.util.concurrent.Executor)}
+ * and the calling thread stops waiting for them once the budget has expired.
+ * <p>Instances of this class are immutable.
+ *
+ * @see EventManager#register(Object, Class, org.bukkit.event.EventPriority, CircuitBreaker, java.util.function.Consumer)
+ */
+public final class CircuitBreaker {
+
+    private final long budget;
+    private final int failureThreshold;
+    private final long cooldown;
+    private final boolean hardTimeout;
+
+    private CircuitBreaker(long budget, int failureThreshold, long cooldown, boolean hardTimeout) {
+        this.budget = budget;
+        this.failureThreshold = failureThreshold;
+        this.cooldown = cooldown;
+        this.hardTimeout = hardTimeout;
+    }
+
+    /**
+     * Creates a {@link CircuitBreaker} which trips after 3 consecutive failures and has a cooldown of 60 seconds.
+     *
+     * @param budget The maximum time the consumer can run.
+     * @param unit The time unit of the budget.
+     * @return A new {@link CircuitBreaker}.
+     * @throws IllegalArgumentException If unit is null or the budget is not positive.
+     */
+    @NotNull
+    public static CircuitBreaker of(long budget, @NotNull TimeUnit unit) throws IllegalArgumentException {
+        Preconditions.checkArgument(budget > 0, "Budget must be positive.");
+        Preconditions.checkNotNull(unit, "TimeUnit cannot be null.");
+        return new CircuitBreaker(unit.toNanos(budget), 3, TimeUnit.SECONDS.toNanos(60), false);
+    }
+
+    /**
+     * @param failureThreshold The number of consecutive failures after which the consumer is tripped.
+     * @return A copy of this {@link CircuitBreaker} with the provided failure threshold.
+     * @throws IllegalArgumentException If the threshold is not positive.
+     */
+    @NotNull
+    public CircuitBreaker withFailureThreshold(int failureThreshold) throws IllegalArgumentException {
+        Preconditions.checkArgument(failureThreshold > 0, "Failure threshold must be positive.");
+        return new CircuitBreaker(budget, failureThreshold, cooldown, hardTimeout);
+    }
+
+    /**
+     * @param cooldown For how long a tripped consumer is skipped.
+     * @param unit The time unit of the cooldown.
+     * @return A copy of this {@link CircuitBreaker} with the provided cooldown.
+     * @throws IllegalArgumentException If unit is null or the cooldown is not positive.
+     */
+    @NotNull
+    public CircuitBreaker withCooldown(long cooldown, @NotNull TimeUnit unit) throws IllegalArgumentException {
+        Preconditions.checkArgument(cooldown > 0, "Cooldown must be positive.");
+        Preconditions.checkNotNull(unit, "TimeUnit cannot be null.");
+        return new CircuitBreaker(budget, failureThreshold, unit.toNanos(cooldown), hardTimeout);
+    }
+
+    /**
+     * Sets whether consumers of asynchronous events should be abandoned when they exceed their budget.
+     * <p>An abandoned consumer is interrupted, but it keeps running on the executor until it reacts to the interruption,
+     * so it must tolerate the event being modified concurrently.
+     *
+     * @param hardTimeout Whether to enable hard timeouts.
+     * @return A copy of this {@link CircuitBreaker} with the provided hard timeout setting.
+     */
+    @NotNull
+    public CircuitBreaker withHardTimeout(boolean hardTimeout) {
+        return new CircuitBreaker(budget, failureThreshold, cooldown, hardTimeout);
+    }
+
+    /**
+     * @param unit The time unit of the returned value.
+     * @return The maximum time the consumer can run.
+     */
+    public long getBudget(@NotNull TimeUnit unit) {
+        return unit.convert(budget, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return The number of consecutive failures after which the consumer is tripped.
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * @param unit The time unit of the returned value.
+     * @return For how long a tripped consumer is skipped.
+     */
+    public long getCooldown(@NotNull TimeUnit unit) {
+        return unit.convert(cooldown, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return Whether consumers of asynchronous events are abandoned when they exceed their budget.
+     */
+    public boolean hasHardTimeout() {
+        return hardTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{" +
+                "budget=" + budget +
+                "ns, failureThreshold=" + failureThreshold +
+                ", cooldown=" + cooldown +
+                "ns, hardTimeout=" + hardTimeout +
+                '}';
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A condition which an {@link Event} must satisfy for a consumer to be called.
+ * <p>Consumers registered to the same event and priority with equal filters share their filter: it is tested when the first
+ * of those consumers is reached and its result is reused by the others, which are skipped if it didn't pass.
+ * Consumers are still called in registration order, so filters see the changes made by the consumers called before them.
+ * Filters created by {@link Filters#notCancelled()} (also combined with other filters) are tested again whenever
+ * a consumer has been called since their last test, so a consumer cancelling the event is always seen.
+ * Other filters are expected to check only what the consumers of their priority don't change.
+ * <p>The filters created by {@link Filters} are equal when they check the same conditions. Other filters are grouped only
+ * if they are the same instance or implement {@link Object#equals(Object)} and {@link Object#hashCode()}.
+ *
+ * @param <E> The type of the event.
+ * @see Filters
+ * @see EventManager#register(Object, Class, org.bukkit.event.EventPriority, EventFilter, java.util.function.Consumer)
+ */
+@FunctionalInterface
+public interface EventFilter<E extends Event> {
+
+    /**
+     * @param event The event being called.
+     * @return Whether the consumers should be called.
+     */
+    boolean test(@NotNull E event);
+
+    /**
+     * @param other The other filter.
+     * @return A filter which passes iff both this filter and the provided one pass.
+     * @throws IllegalArgumentException If other is null.
+     */
+    @NotNull
+    default EventFilter<E> and(@NotNull EventFilter<? super E> other) throws IllegalArgumentException {
+        return Filters.and(this, other);
+    }
+
+    /**
+     * @param other The other filter.
+     * @return A filter which passes iff either this filter or the provided one passes.
+     * @throws IllegalArgumentException If other is null.
+     */
+    @NotNull
+    default EventFilter<E> or(@NotNull EventFilter<? super E> other) throws IllegalArgumentException {
+        return Filters.or(this, other);
+    }
+
+    /**
+     * @return A filter which passes iff this filter doesn't.
+     */
+    @NotNull
+    default EventFilter<E> negate() {
+        return Filters.not(this);
+    }
+}
@@ -16,8 +16,12 @@
 
 package com.fren_gor.eventManagerAPI;
 
+import com.fren_gor.eventManagerAPI.SubscriberMethods.Subscription;
+import com.fren_gor.eventManagerAPI.Waiters.Waiter;
 import com.google.common.base.Preconditions;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.HandlerList;
@@ -25,22 +29,53 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Class to register many event listeners using only one listener per event.
+ * <p>Synchronous events are dispatched without any locking. Listeners (un)registered from other threads become visible
+ * to the main thread from the next call of the event, so a dispatch already running when a listener is unregistered off the
+ * main thread may still call it. Asynchronous events don't have this limitation.
+ * <p>On region-threaded servers, like Folia, the same event is called by many threads at the same time.
+ * There, the {@link EventManager} uses concurrent dispatch (see {@link #EventManager(Plugin, boolean)}).
  */
-public final class EventManager {
+public final class EventManager implements EventRegistry {
 
     private static final int priorities;
 
@@ -58,21 +93,57 @@ public final class EventManager {
     private final Plugin plugin;
     private final Object INTERNAL_LISTENER = new Object();
     private final AtomicBoolean enabled = new AtomicBoolean(true);
-    private final Map<Class<? extends Event>, EventGroup<? extends Event>> events = new HashMap<>();
+    // Modified only while synchronized on itself, concurrent to let fire(Event) look up events without locking
+    private final Map<Class<? extends Event>, EventGroup<? extends Event>> events = new ConcurrentHashMap<>();
+    private volatile Executor parallelExecutor = ForkJoinPool.commonPool();
+    private final boolean concurrentDispatch;
+    // Expirations of the consumers registered with a ttl. The task advancing it is guarded by the wheel
+    private final TimingWheel<Expiration> expirations = new TimingWheel<>(512);
+    // Cancels the task advancing the wheel, null if it isn't running
+    @Nullable
+    private Runnable cancelExpirationTask;
 
     /**
      * Create an EventManager.
+     * <p>Concurrent dispatch is enabled iff the server is region-threaded. See {@link #EventManager(Plugin, boolean)}.
      *
      * @param plugin The plugin which will be used to register events.
      * @throws IllegalArgumentException If {@link Plugin} is null or not enabled.
      */
     public EventManager(@NotNull Plugin plugin) throws IllegalArgumentException {
+        this(plugin, isRegionThreaded());
+    }
+
+    /**
+     * Create an EventManager.
+     * <p>With concurrent dispatch, every event, synchronous or not, is dispatched without taking any lock and without
+     * writing to any state shared between the calling threads. The consumers to call are rebuilt by the thread which
+     * (un)registers them instead of by the first thread calling the event, so registration never blocks a dispatch
+     * and dispatching threads never wait for each other. In exchange, (un)registering is slower when many consumers
+     * are registered to the same event and priority, and a dispatch already running may still call a consumer
+     * unregistered by another thread.
+     *
+     * @param plugin The plugin which will be used to register events.
+     * @param concurrentDispatch Whether concurrent dispatch should be used.
+     * @throws IllegalArgumentException If {@link Plugin} is null or not enabled.
+     */
+    public EventManager(@NotNull Plugin plugin, boolean concurrentDispatch) throws IllegalArgumentException {
         Preconditions.checkNotNull(plugin, "Plugin cannot be null.");
         Preconditions.checkArgument(plugin.isEnabled(), "Plugin isn't enabled.");
         this.plugin = plugin;
+        this.concurrentDispatch = concurrentDispatch;
         registerPluginDisableEvent();
     }
 
+    private static boolean isRegionThreaded() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer", false, EventManager.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
     /**
      * Register a listener to an {@link Event} with {@link EventPriority#NORMAL} priority.
      * <p>A new bukkit {@link Listener} will be registered iff no other event with the same type and priority has been registered before.
@@ -98,227 +169,1347 @@ public final class EventManager {
      * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
      * @throws IllegalArgumentException If any argument is null or the {@link Plugin} is disabled. See {@link Plugin#isEnabled()}.
      */
+    @Override
     public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
-        if (!enabled.get())
-            throw new IllegalStateException("EventManager is disabled. Cannot register any event.");
-        if (!plugin.isEnabled())
-            throw new IllegalArgumentException("Plugin is disabled. Cannot register any event.");
-
-        Preconditions.checkNotNull(listener, "Listener cannot be null.");
-        Preconditions.checkNotNull(event, "Event class cannot be null.");
-        Preconditions.checkNotNull(priority, "EventPriority cannot be null.");
+        checkRegistration(listener, event, priority);
         Preconditions.checkNotNull(consumer, "Consumer cannot be null.");
 
-        EventGroup<E> el;
-        synchronized (events) {
-            el = (EventGroup<E>) events.computeIfAbsent(event, c -> new EventGroup<E>());
-        }
+        addHandler(listener, event, priority, new Handler<>(consumer));
+    }
 
-        el.getListener(priority, event).register(listener, consumer);
+    /**
+     * Register a listener to an {@link Event} with {@link EventPriority#NORMAL} priority, which is called only if the provided filter passes.
+     * <p>See {@link #register(Object, Class, EventPriority, EventFilter, Consumer)} for further information.
+     *
+     * @param listener The listener. It can be every object.
+     * @param event The event to listen to.
+     * @param filter The filter the event must pass.
+     * @param consumer The code to be run when the event is called.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If any argument is null or the {@link Plugin} is disabled. See {@link Plugin#isEnabled()}.
+     */
+    public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventFilter<? super E> filter, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+        register(listener, event, EventPriority.NORMAL, filter, consumer);
     }
 
     /**
-     * Unregister every event from a specified listener.
+     * Register a listener to an {@link Event} with a certain priority, which is called only if the provided filter passes.
+     * <p>Consumers of the same event and priority registered with equal filters share the filter, which is usually tested only once
+     * per event. See {@link EventFilter} for further information.
      *
-     * @param listener The listener to be unregister.
+     * @param listener The listener. It can be every object.
+     * @param event The event to listen to.
+     * @param priority The event priority.
+     * @param filter The filter the event must pass.
+     * @param consumer The code to be run when the event is called.
      * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
-     * @throws IllegalArgumentException If listener is null.
+     * @throws IllegalArgumentException If any argument is null or the {@link Plugin} is disabled. See {@link Plugin#isEnabled()}.
+     * @see Filters
      */
-    public void unregister(@NotNull Object listener) throws IllegalStateException, IllegalArgumentException {
-        checkInitialisation();
-        Preconditions.checkNotNull(listener, "Listener cannot be null.");
-        synchronized (events) {
-            for (EventGroup<? extends Event> el : events.values()) {
-                el.unregisterListener(listener);
-            }
-            if (listener == INTERNAL_LISTENER) {
-                registerPluginDisableEvent();
-            }
-        }
+    public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, @NotNull EventFilter<? super E> filter, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+        checkRegistration(listener, event, priority);
+        Preconditions.checkNotNull(filter, "EventFilter cannot be null.");
+        Preconditions.checkNotNull(consumer, "Consumer cannot be null.");
+
+        addHandler(listener, event, priority, new Handler<>(consumer, filter));
     }
 
     /**
-     * Remove every listener to an event without unregistering its bukkit {@link Listener}.
+     * Register a listener to an {@link Event} with {@link EventPriority#NORMAL} priority, which is called only inside a region.
+     * <p>See {@link #register(Object, Class, EventPriority, Region, Function, Consumer)} for further information.
      *
-     * @param event The event's class.
+     * @param listener The listener. It can be every object.
+     * @param event The event to listen to.
+     * @param region The region.
+     * @param locator The function which returns the location of the event. It may return null.
+     * @param consumer The code to be run when the event is called inside the region.
      * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
-     * @throws IllegalArgumentException If event class is null.
+     * @throws IllegalArgumentException If any argument is null or the {@link Plugin} is disabled. See {@link Plugin#isEnabled()}.
      */
-    public void clearEventListener(@NotNull Class<? extends Event> event) throws IllegalStateException, IllegalArgumentException {
-        checkInitialisation();
-        Preconditions.checkNotNull(event, "Event class cannot be null.");
-        synchronized (events) {
-            EventGroup<? extends Event> el = events.get(event);
-            if (el != null) {
-                el.clearListeners();
-                if (event == PluginDisableEvent.class) {
-                    registerPluginDisableEvent();
-                }
-            }
-        }
+    public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull Region region, @NotNull Function<? super E, ? extends Location> locator, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+        register(listener, event, EventPriority.NORMAL, region, locator, consumer);
     }
 
     /**
-     * Unregister every listener to an event and try to unregister its bukkit {@link Listener}.
+     * Register a listener to an {@link Event} with a certain priority, which is called only if the location of the event is inside a region.
+     * <p>Regions registered to the same event and priority with the same locator instance are indexed by chunk, so calling the event
+     * costs the same however many regions are registered: only the consumers of the regions sharing the chunk of the location are checked.
+     * Reuse the same locator instance for every region of an event, for example a constant or a method reference to a static method.
+     * <p>The locator is run once per event and the consumers of regions are called after the other consumers of the same priority.
+     * Registering or unregistering a region rebuilds only the index of its locator.
      *
-     * @param event The event's class.
+     * @param listener The listener. It can be every object.
+     * @param event The event to listen to.
+     * @param priority The event priority.
+     * @param region The region.
+     * @param locator The function which returns the location of the event. It may return null.
+     * @param consumer The code to be run when the event is called inside the region.
      * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
-     * @throws IllegalArgumentException If event class is null.
+     * @throws IllegalArgumentException If any argument is null or the {@link Plugin} is disabled. See {@link Plugin#isEnabled()}.
      */
-    public void unregisterEvent(@NotNull Class<? extends Event> event) throws IllegalStateException, IllegalArgumentException {
-        checkInitialisation();
-        Preconditions.checkNotNull(event, "Event class cannot be null.");
-        synchronized (events) {
-            EventGroup<? extends Event> el = events.remove(event);
-            if (el != null) {
-                el.unregisterBukkitListener();
-                if (event == PluginDisableEvent.class) {
-                    registerPluginDisableEvent();
-                }
-            }
-        }
+    public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, @NotNull Region region, @NotNull Function<? super E, ? extends Location> locator, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+        checkRegistration(listener, event, priority);
+        Preconditions.checkNotNull(region, "Region cannot be null.");
+        Preconditions.checkNotNull(locator, "Locator cannot be null.");
+        Preconditions.checkNotNull(consumer, "Consumer cannot be null.");
+
+        addHandler(listener, event, priority, new RegionHandler<>(consumer, region, locator));
     }
 
     /**
-     * Unregister every registered bukkit {@link Listener} and disable the event manager.
+     * Register every method of a listener annotated with {@link Subscribe}.
+     * <p>The methods of every class are looked up only once, so registering many instances of the same class is cheap.
+     * Methods are called without using reflection: public methods of public classes are bound using {@link java.lang.invoke.LambdaMetafactory},
+     * the others using {@link java.lang.invoke.MethodHandle}s.
+     * <p>If the {@code eventmanagerapi-processor} annotation processor generated a {@link ListenerRegistrar} for the class of the listener,
+     * it is used instead and the class is not scanned at all.
+     * <p>Every method is registered using the provided listener, so they can be unregistered using {@link #unregister(Object)}.
+     *
+     * @param listener The listener which methods will be registered.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If listener is null, an annotated method is invalid or the {@link Plugin} is disabled. See {@link Plugin#isEnabled()}.
      */
-    public void disable() {
-        if (!enabled.compareAndSet(true, false)) {
+    public void registerAll(@NotNull Object listener) throws IllegalStateException, IllegalArgumentException {
+        Preconditions.checkNotNull(listener, "Listener cannot be null.");
+        ListenerRegistrar<Object> registrar = SubscriberMethods.registrarOf(listener.getClass());
+        if (registrar != null) {
+            registrar.registerAll(this, listener);
             return;
         }
-        synchronized (events) {
-            for (EventGroup<? extends Event> el : events.values()) {
-                el.unregisterBukkitListener();
-            }
-            events.clear();
+        for (Subscription s : SubscriberMethods.of(listener.getClass()).getSubscriptions()) {
+            register(listener, (Class<Event>) s.getEvent(), s.getPriority(), s.bind(listener));
         }
     }
 
     /**
-     * Gets the plugin which is used to register the listeners.
+     * Creates a stream of an {@link Event} with {@link EventPriority#NORMAL} priority.
+     * <p>See {@link #stream(Class, EventPriority)} for further information.
      *
-     * @return The plugin which owns this {@link EventManager}.
+     * @param event The event to listen to.
+     * @return A new {@link EventStream} of the event.
+     * @throws IllegalArgumentException If event class is null.
      */
-    public @NotNull Plugin getPlugin() {
-        return plugin;
+    @NotNull
+    public <E extends Event> EventStream<E> stream(@NotNull Class<E> event) throws IllegalArgumentException {
+        return stream(event, EventPriority.NORMAL);
     }
 
     /**
-     * Returns if the event manager is enabled and can register or listen to events.
-     * <p>To disable the event manager and unregister every registered listener see {@link EventManager#disable()}.
+     * Creates a stream of an {@link Event} with a certain priority.
+     * <p>Nothing is registered until the stream is subscribed to. Every subscription fuses the operators of the stream
+     * into a single consumer, registered as if using {@link #register(Object, Class, EventPriority, Consumer)}.
      *
-     * @return true if the event manager is enabled, false otherwise.
+     * @param event The event to listen to.
+     * @param priority The event priority.
+     * @return A new {@link EventStream} of the event.
+     * @throws IllegalArgumentException If any argument is null.
      */
-    public boolean isEnabled() {
-        return enabled.get();
+    @NotNull
+    public <E extends Event> EventStream<E> stream(@NotNull Class<E> event, @NotNull EventPriority priority) throws IllegalArgumentException {
+        Preconditions.checkNotNull(event, "Event class cannot be null.");
+        Preconditions.checkNotNull(priority, "EventPriority cannot be null.");
+        return new EventStream<>(this, (Object listener, Consumer<E> consumer) -> register(listener, event, priority, consumer));
     }
 
-    private void registerPluginDisableEvent() {
-        register(INTERNAL_LISTENER, PluginDisableEvent.class, EventPriority.MONITOR, e -> {
-            if (e.getPlugin() == plugin) {
-                enabled.set(false);
-                synchronized (events) {
-                    events.clear();
-                }
-            }
-        });
+    /**
+     * Register a listener to an {@link Event} with {@link EventPriority#NORMAL} priority, protected by a {@link CircuitBreaker}.
+     * <p>See {@link #register(Object, Class, EventPriority, CircuitBreaker, Consumer)} for further information.
+     *
+     * @param listener The listener. It can be every object.
+     * @param event The event to listen to.
+     * @param breaker The time budget and circuit breaker settings of the consumer.
+     * @param consumer The code to be run when the event is called.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If any argument is null or the {@link Plugin} is disabled. See {@link Plugin#isEnabled()}.
+     */
+    public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull CircuitBreaker breaker, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+        register(listener, event, EventPriority.NORMAL, breaker, consumer);
     }
 
-    private void checkInitialisation() throws IllegalStateException {
-        if (!enabled.get())
-            throw new IllegalStateException("EventManager is disabled. Cannot perform any action.");
+    /**
+     * Register a listener to an {@link Event} with a certain priority, protected by a {@link CircuitBreaker}.
+     * <p>Every time the consumer exceeds its time budget or throws an exception a failure is counted. Too many consecutive
+     * failures trip the consumer, which is then skipped for the cooldown period of the breaker. Tripped consumers are reported in the console.
+     *
+     * @param listener The listener. It can be every object.
+     * @param event The event to listen to.
+     * @param priority The event priority.
+     * @param breaker The time budget and circuit breaker settings of the consumer.
+     * @param consumer The code to be run when the event is called.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If any argument is null or the {@link Plugin} is disabled. See {@link Plugin#isEnabled()}.
+     */
+    public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, @NotNull CircuitBreaker breaker, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+        checkRegistration(listener, event, priority);
+        Preconditions.checkNotNull(breaker, "CircuitBreaker cannot be null.");
+        Preconditions.checkNotNull(consumer, "Consumer cannot be null.");
+
+        addHandler(listener, event, priority, new GuardedHandler<>(consumer, breaker, event.getSimpleName() + " in " + listener.getClass().getSimpleName()));
     }
 
-    private final class EventGroup<E extends Event> {
+    /**
+     * Register a listener to an {@link Event} with {@link EventPriority#NORMAL} priority, for a limited time.
+     * <p>See {@link #register(Object, Class, EventPriority, long, TimeUnit, Consumer)} for further information.
+     *
+     * @param listener The listener. It can be every object.
+     * @param event The event to listen to.
+     * @param ttl The time after which the consumer is unregistered.
+     * @param unit The unit of ttl.
+     * @param consumer The code to be run when the event is called.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If any argument is null, the {@link Plugin} is disabled or ttl isn't positive.
+     */
+    public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, long ttl, @NotNull TimeUnit unit, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+        register(listener, event, EventPriority.NORMAL, ttl, unit, consumer);
+    }
 
-        private final EventListener<E>[] eventListeners = new EventListener[priorities];
+    /**
+     * Register a listener to an {@link Event} with a certain priority, for a limited time.
+     * <p>The consumer is unregistered automatically once the ttl has elapsed, measured in server ticks and rounded up to the next tick.
+     * Expirations are tracked by a single timing wheel advanced every tick by a task of the plugin, which runs only while
+     * there are consumers waiting to expire. The consumers expiring in the same tick are unregistered together.
+     * On Folia, which doesn't support the {@link org.bukkit.scheduler.BukkitScheduler}, the task is run by the global region scheduler.
+     * <p>The consumer can still be unregistered earlier, for example using {@link #unregister(Object)}.
+     *
+     * @param listener The listener. It can be every object.
+     * @param event The event to listen to.
+     * @param priority The event priority.
+     * @param ttl The time after which the consumer is unregistered.
+     * @param unit The unit of ttl.
+     * @param consumer The code to be run when the event is called.
+     * @throws IllegalStateException If the {@link EventManager} is disabled (see {@link EventManager#isEnabled()})
+     *         or the server cannot run the task advancing the expirations.
+     * @throws IllegalArgumentException If any argument is null, the {@link Plugin} is disabled or ttl isn't positive.
+     */
+    public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, long ttl, @NotNull TimeUnit unit, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+        checkRegistration(listener, event, priority);
+        Preconditions.checkArgument(ttl > 0, "TTL must be positive.");
+        Preconditions.checkNotNull(unit, "TimeUnit cannot be null.");
+        Preconditions.checkNotNull(consumer, "Consumer cannot be null.");
 
-        @NotNull
-        public synchronized EventListener<E> getListener(@NotNull EventPriority priority, @NotNull Class<E> event) {
-            EventListener<E> l = eventListeners[priority.getSlot()];
-            if (l == null) {
-                return eventListeners[priority.getSlot()] = new EventListener<>(event, priority);
-            }
-            return l;
-        }
+        addHandler(listener, event, priority, new ExpiringHandler<>(consumer, toTicks(ttl, unit)));
+    }
 
-        public synchronized void unregisterListener(@NotNull Object listener) {
-            for (int i = 0; i < eventListeners.length; i++) {
-                EventListener<E> l = eventListeners[i];
-                if (l != null)
-                    l.unregisterListener(listener);
-            }
-        }
+    private static long toTicks(long duration, @NotNull TimeUnit unit) {
+        // A tick lasts 50 milliseconds. toMillis saturates, so huge durations are clamped before rounding up
+        long millis = Math.min(unit.toMillis(duration), Long.MAX_VALUE - 49);
+        return Math.max(1, (millis + 49) / 50);
+    }
 
-        public synchronized void clearListeners() {
-            for (int i = 0; i < eventListeners.length; i++) {
-                EventListener<E> l = eventListeners[i];
-                if (l != null)
-                    l.clearListeners();
-            }
-        }
+    /**
+     * Register an independent task to an {@link Event} with {@link EventPriority#NORMAL} priority.
+     * <p>See {@link #registerParallel(Object, Class, EventPriority, long, TimeUnit, Function)} for further information.
+     *
+     * @param listener The listener. It can be every object.
+     * @param event The event to listen to.
+     * @param timeout The maximum time to wait for the task to complete.
+     * @param unit The time unit of the timeout.
+     * @param task The task to be run when the event is called. It returns the code to be run on the calling thread once every task has been completed, or null.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If any argument is null, the timeout is not positive or the {@link Plugin} is disabled. See {@link Plugin#isEnabled()}.
+     */
+    public <E extends Event> void registerParallel(@NotNull Object listener, @NotNull Class<E> event, long timeout, @NotNull TimeUnit unit, @NotNull Function<? super E, ? extends Consumer<? super E>> task) throws IllegalStateException, IllegalArgumentException {
+        registerParallel(listener, event, EventPriority.NORMAL, timeout, unit, task);
+    }
 
-        public synchronized void unregisterBukkitListener() {
-            for (int i = 0; i < eventListeners.length; i++) {
-                EventListener<E> l = eventListeners[i];
-                if (l != null) {
-                    l.unregisterBukkitListener();
-                    eventListeners[i] = null;
-                }
-            }
-        }
+    /**
+     * Register an independent task to an {@link Event} with a certain priority.
+     * <p>When the event is asynchronous (see {@link Event#isAsynchronous()}), the tasks registered with the same priority
+     * are run concurrently on the executor set using {@link #setParallelExecutor(Executor)}, while the other consumers are run on the calling thread.
+     * Before moving to the next priority, the calling thread waits for every task to complete or time out.
+     * Consumers can be (un)registered while the tasks are running, so the consumer returned by a task may be run
+     * even if it has been unregistered in the meantime.
+     * <p>Since tasks run concurrently, they must not modify the event. Instead, they return a {@link Consumer} which is run
+     * on the calling thread after the task has completed and which can safely modify the event.
+     * If the task times out or throws an exception, its consumer is not run. Tasks which time out are interrupted.
+     * <p>When the event is synchronous, the task and its returned consumer are run on the calling thread like any other consumer.
+     *
+     * @param listener The listener. It can be every object.
+     * @param event The event to listen to.
+     * @param priority The event priority.
+     * @param timeout The maximum time to wait for the task to complete.
+     * @param unit The time unit of the timeout.
+     * @param task The task to be run when the event is called. It returns the code to be run on the calling thread once every task has been completed, or null.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If any argument is null, the timeout is not positive or the {@link Plugin} is disabled. See {@link Plugin#isEnabled()}.
+     */
+    public <E extends Event> void registerParallel(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, long timeout, @NotNull TimeUnit unit, @NotNull Function<? super E, ? extends Consumer<? super E>> task) throws IllegalStateException, IllegalArgumentException {
+        checkRegistration(listener, event, priority);
+        Preconditions.checkArgument(timeout > 0, "Timeout must be positive.");
+        Preconditions.checkNotNull(unit, "TimeUnit cannot be null.");
+        Preconditions.checkNotNull(task, "Task cannot be null.");
 
+        addHandler(listener, event, priority, new ParallelHandler<>(task, unit.toNanos(timeout)));
     }
 
-    private final class EventListener<E extends Event> implements Listener {
+    /**
+     * Register a listener to the next {@link Event} with {@link EventPriority#NORMAL} priority.
+     * <p>See {@link #registerOnce(Object, Class, EventPriority, Consumer)} for further information.
+     *
+     * @param listener The listener. It can be every object.
+     * @param event The event to listen to.
+     * @param consumer The code to be run when the event is called.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If any argument is null or the {@link Plugin} is disabled. See {@link Plugin#isEnabled()}.
+     */
+    public <E extends Event> void registerOnce(@NotNull Object listener, @NotNull Class<E> event, @NotNull Consumer<? super E> consumer) throws IllegalStateException, IllegalArgumentException {
+        registerOnce(listener, event, EventPriority.NORMAL, consumer);
+    }
 
-        private final Map<Object, List<Consumer<E>>> map = new HashMap<>();
-        private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
-        private final Class<E> clazz;
+    /**
+     * Register a listener to the next {@link Event}.
+     * <p>The consumer is called at most once and is removed as soon as it is called, without locking the other consumers
+     * of the event. It is called after the other consumers registered with the same priority.
+     * <p>Like any other consumer, it can be unregistered before being called using {@link #unregister(Object)}.
+     *
+     * @param listener The listener. It can be every object.
+     * @param event The event to listen to.
+     * @param priority The priority of the event.
+     * @param consumer The code to be run when the event is called.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If any argument is null or the {@link Plugin} is disabled. See {@link Plugin#isEnabled()}.
+     */
+    public <E extends Event> void registerOnce(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, @NotNull Consumer<? super E> consumer) throws IllegalStateException, IllegalArgumentException {
+        checkRegistration(listener, event, priority);
+        Preconditions.checkNotNull(consumer, "Consumer cannot be null.");
 
-        public EventListener(@NotNull Class<E> clazz, @NotNull EventPriority priority) {
-            this.clazz = Objects.requireNonNull(clazz, "Event class is null.");
-            Bukkit.getPluginManager().registerEvent(clazz, this, priority, (listener, event) -> call(event), plugin);
-        }
+        addWaiter(event, priority, new Waiter<>(listener, null, null, null, consumer, null));
+    }
 
-        public void register(@NotNull Object listener, @NotNull Consumer<E> consumer) {
-            Preconditions.checkNotNull(listener, "Listener is null.");
-            Preconditions.checkNotNull(consumer, "Consumer is null.");
-            readWriteLock.writeLock().lock();
-            try {
-                List<Consumer<E>> l = map.computeIfAbsent(listener, k -> new LinkedList<>());
-                l.add(consumer);
-            } finally {
-                readWriteLock.writeLock().unlock();
-            }
-        }
+    /**
+     * Waits for the next {@link Event} accepted by the filter, listening with {@link EventPriority#NORMAL} priority.
+     * <p>See {@link #await(Class, EventPriority, EventFilter, long, TimeUnit)} for further information.
+     *
+     * @param event The event to wait for.
+     * @param filter The filter the event must pass.
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of timeout.
+     * @return A {@link CompletableFuture} completed with the event.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If any argument is null, the {@link Plugin} is disabled or timeout isn't positive.
+     */
+    @NotNull
+    public <E extends Event> CompletableFuture<E> await(@NotNull Class<E> event, @NotNull EventFilter<? super E> filter, long timeout, @NotNull TimeUnit unit) throws IllegalStateException, IllegalArgumentException {
+        return await(event, EventPriority.NORMAL, filter, timeout, unit);
+    }
 
-        public void unregisterListener(@NotNull Object listener) {
-            readWriteLock.writeLock().lock();
-            try {
-                map.remove(listener);
-            } finally {
-                readWriteLock.writeLock().unlock();
-            }
-        }
+    /**
+     * Waits for the next {@link Event} accepted by the filter.
+     * <p>The returned future is completed on the thread calling the event, after the other consumers registered with
+     * the same priority, so its dependent actions can still modify the event.
+     * If no event passes the filter within the timeout, the future is completed with a {@link TimeoutException}
+     * on a daemon thread of EventManagerAPI, which is not the main thread of the server. In that case, dependent actions
+     * registered without an executor run on that thread too, so actions using the Bukkit API should be run on the main thread,
+     * for example with {@code whenCompleteAsync(action, task -> Bukkit.getScheduler().runTask(plugin, task))}.
+     * The waiter is removed as soon as the future is completed, also when it is cancelled by the caller,
+     * and it is cancelled when the {@link EventManager} is disabled.
+     * <p>To wait for an event of a particular player or entity, prefer {@link #await(Class, EventPriority, Function, Object, long, TimeUnit)},
+     * which doesn't test the waiters of the other keys.
+     *
+     * @param event The event to wait for.
+     * @param priority The priority of the event.
+     * @param filter The filter the event must pass.
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of timeout.
+     * @return A {@link CompletableFuture} completed with the event.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If any argument is null, the {@link Plugin} is disabled or timeout isn't positive.
+     */
+    @NotNull
+    public <E extends Event> CompletableFuture<E> await(@NotNull Class<E> event, @NotNull EventPriority priority, @NotNull EventFilter<? super E> filter, long timeout, @NotNull TimeUnit unit) throws IllegalStateException, IllegalArgumentException {
+        Preconditions.checkNotNull(filter, "Filter cannot be null.");
+        return await(event, priority, filter, null, null, timeout, unit);
+    }
 
-        public void clearListeners() {
-            readWriteLock.writeLock().lock();
-            try {
-                map.clear();
+    /**
+     * Waits for the next {@link Event} with the provided key, listening with {@link EventPriority#NORMAL} priority.
+     * <p>See {@link #await(Class, EventPriority, Function, Object, long, TimeUnit)} for further information.
+     *
+     * @param event The event to wait for.
+     * @param key The function extracting the key of the event.
+     * @param value The key to wait for.
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of timeout.
+     * @return A {@link CompletableFuture} completed with the event.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If any argument is null, the {@link Plugin} is disabled or timeout isn't positive.
+     */
+    @NotNull
+    public <E extends Event> CompletableFuture<E> await(@NotNull Class<E> event, @NotNull Function<? super E, ?> key, @NotNull Object value, long timeout, @NotNull TimeUnit unit) throws IllegalStateException, IllegalArgumentException {
+        return await(event, EventPriority.NORMAL, key, value, timeout, unit);
+    }
+
+    /**
+     * Waits for the next {@link Event} whose key is equal to the provided value.
+     * <pre>{@code
+     * manager.await(AsyncPlayerChatEvent.class, PlayerEvent::getPlayer, player, 30, TimeUnit.SECONDS)
+     *        .thenAccept(event -> ...);
+     * }</pre>
+     * <p>Waiters are indexed by key, so the key of an event is computed once for every distinct key function
+     * and only the waiters of that key are visited. To make this effective, the same key function instance should
+     * be used by every waiter of the event.
+     * <p>See {@link #await(Class, EventPriority, EventFilter, long, TimeUnit)} for further information.
+     *
+     * @param event The event to wait for.
+     * @param priority The priority of the event.
+     * @param key The function extracting the key of the event.
+     * @param value The key to wait for.
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of timeout.
+     * @return A {@link CompletableFuture} completed with the event.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If any argument is null, the {@link Plugin} is disabled or timeout isn't positive.
+     */
+    @NotNull
+    public <E extends Event> CompletableFuture<E> await(@NotNull Class<E> event, @NotNull EventPriority priority, @NotNull Function<? super E, ?> key, @NotNull Object value, long timeout, @NotNull TimeUnit unit) throws IllegalStateException, IllegalArgumentException {
+        Preconditions.checkNotNull(key, "Key function cannot be null.");
+        Preconditions.checkNotNull(value, "Key cannot be null.");
+        return await(event, priority, null, key, value, timeout, unit);
+    }
+
+    @NotNull
+    private <E extends Event> CompletableFuture<E> await(@NotNull Class<E> event, @NotNull EventPriority priority, @Nullable EventFilter<? super E> filter, @Nullable Function<? super E, ?> key, @Nullable Object value, long timeout, @NotNull TimeUnit unit) throws IllegalStateException, IllegalArgumentException {
+        if (!enabled.get())
+            throw new IllegalStateException("EventManager is disabled. Cannot register any event.");
+        if (!plugin.isEnabled())
+            throw new IllegalArgumentException("Plugin is disabled. Cannot register any event.");
+        Preconditions.checkNotNull(event, "Event class cannot be null.");
+        Preconditions.checkNotNull(priority, "EventPriority cannot be null.");
+        Preconditions.checkArgument(timeout > 0, "Timeout must be positive.");
+        Preconditions.checkNotNull(unit, "TimeUnit cannot be null.");
+
+        CompletableFuture<E> future = new CompletableFuture<>();
+        Waiter<E> waiter = new Waiter<>(null, filter, key, value, future::complete, () -> future.cancel(false));
+        Waiters<E> waiters = addWaiter(event, priority, waiter);
+        ScheduledFuture<?> task = Timeouts.EXECUTOR.schedule(() -> {
+            if (waiter.claim()) {
+                waiters.remove(waiter);
+                future.completeExceptionally(new TimeoutException("No " + event.getSimpleName() + " has been called within " + timeout + ' ' + unit + '.'));
+            }
+        }, timeout, unit);
+        future.whenComplete((e, t) -> {
+            task.cancel(false);
+            // Cancelled by the caller
+            if (waiter.claim()) {
+                waiters.remove(waiter);
+            }
+        });
+        return future;
+    }
+
+    @NotNull
+    private <E extends Event> Waiters<E> addWaiter(@NotNull Class<E> event, @NotNull EventPriority priority, @NotNull Waiter<E> waiter) {
+        Object token = Recorder.INSTANCE.beginRegistration();
+        EventListener<E> l = add(event, priority, listener -> listener.waiters.add(waiter));
+        Recorder.INSTANCE.endRegistration(token, "registerOnce", event, priority, waiter.getListener());
+        return l.waiters;
+    }
+
+    /**
+     * Sets the executor used to run the tasks registered using {@link #registerParallel(Object, Class, EventPriority, long, TimeUnit, Function)}.
+     * <p>By default, {@link ForkJoinPool#commonPool()} is used.
+     *
+     * @param executor The executor.
+     * @throws IllegalArgumentException If executor is null.
+     */
+    public void setParallelExecutor(@NotNull Executor executor) throws IllegalArgumentException {
+        Preconditions.checkNotNull(executor, "Executor cannot be null.");
+        this.parallelExecutor = executor;
+    }
+
+    private void checkRegistration(@NotNull Object listener, @NotNull Class<? extends Event> event, @NotNull EventPriority priority) throws IllegalStateException, IllegalArgumentException {
+        if (!enabled.get())
+            throw new IllegalStateException("EventManager is disabled. Cannot register any event.");
+        if (!plugin.isEnabled())
+            throw new IllegalArgumentException("Plugin is disabled. Cannot register any event.");
+
+        Preconditions.checkNotNull(listener, "Listener cannot be null.");
+        Preconditions.checkNotNull(event, "Event class cannot be null.");
+        Preconditions.checkNotNull(priority, "EventPriority cannot be null.");
+    }
+
+    @NotNull
+    private <E extends Event> EventListener<E> addHandler(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, @NotNull Handler<E> handler) {
+        Object token = Recorder.INSTANCE.beginRegistration();
+        if (handler instanceof ExpiringHandler) {
+            // Started before the handler becomes visible, so that it is rejected if the server cannot run the task
+            synchronized (expirations) {
+                startExpirationTask();
+            }
+        }
+        EventListener<E> l = add(event, priority, el -> el.register(listener, handler));
+        if (handler instanceof ExpiringHandler) {
+            expireAfter(l, new Registration(listener, handler), (ExpiringHandler<E>) handler);
+        }
+        Recorder.INSTANCE.endRegistration(token, "register", event, priority, listener);
+        return l;
+    }
+
+    private void expireAfter(@NotNull EventListener<?> l, @NotNull Registration registration, @NotNull ExpiringHandler<?> handler) {
+        synchronized (expirations) {
+            // The handler is visible before being scheduled, so it may have been unregistered in the meantime.
+            // Unregistration and disable() take the lock of the wheel too, so they cannot leave a timeout behind
+            if (handler.cancelled || !enabled.get()) {
+                return;
+            }
+            handler.timeout = expirations.schedule(new Expiration(l, registration), handler.ticks);
+            startExpirationTask();
+        }
+    }
+
+    // Must be called while synchronized on the wheel
+    private void startExpirationTask() throws IllegalStateException {
+        if (cancelExpirationTask != null || !enabled.get()) {
+            return;
+        }
+        try {
+            cancelExpirationTask = Bukkit.getScheduler().runTaskTimer(plugin, this::expire, 1, 1)::cancel;
+        } catch (UnsupportedOperationException e) {
+            // Folia doesn't support the BukkitScheduler
+            cancelExpirationTask = GlobalRegionScheduler.runEveryTick(plugin, this::expire);
+        }
+    }
+
+    // Must be called after the manager has been disabled, by unhookAll()
+    private void clearExpirations() {
+        synchronized (expirations) {
+            expirations.clear();
+            if (cancelExpirationTask != null) {
+                cancelExpirationTask.run();
+                cancelExpirationTask = null;
+            }
+        }
+    }
+
+    private void expire() {
+        List<Expiration> expired;
+        synchronized (expirations) {
+            expired = expirations.advance();
+            if (expirations.isEmpty() && cancelExpirationTask != null) {
+                cancelExpirationTask.run();
+                cancelExpirationTask = null;
+            }
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+        Map<EventListener<?>, List<Registration>> batches = new IdentityHashMap<>();
+        for (Expiration e : expired) {
+            batches.computeIfAbsent(e.listener, k -> new ArrayList<>()).add(e.registration);
+        }
+        Object token = Recorder.INSTANCE.beginRegistration();
+        for (Entry<EventListener<?>, List<Registration>> e : batches.entrySet()) {
+            e.getKey().unregisterHandlers(e.getValue());
+        }
+        Recorder.INSTANCE.endRegistration(token, "expire", null, null, null);
+    }
+
+    // Runs adder on the EventListener of the event and priority, creating it if needed. Retries if the adder fails
+    @NotNull
+    private <E extends Event> EventListener<E> add(@NotNull Class<E> event, @NotNull EventPriority priority, @NotNull Predicate<EventListener<E>> adder) {
+        while (true) {
+            // Registering to an already registered event doesn't need the global lock,
+            // since getListener returns null once the group has been unhooked. Both disable() and the PluginDisableEvent consumer
+            // unhook every group before removing it
+            EventGroup<E> el = (EventGroup<E>) events.get(event);
+            if (el == null) {
+                synchronized (events) {
+                    // Checked again while holding the lock, since disable() may have been called after checkRegistration
+                    if (!enabled.get())
+                        throw new IllegalStateException("EventManager is disabled. Cannot register any event.");
+                    el = (EventGroup<E>) events.computeIfAbsent(event, c -> new EventGroup<>(event));
+                }
+            }
+
+            EventListener<E> l = el.getListener(priority, event);
+            if (l != null && adder.test(l)) {
+                return l;
+            }
+            // The event has been unregistered in the meantime, retry with a new group
+        }
+    }
+
+    /**
+     * Unregister every event from a specified listener.
+     *
+     * @param listener The listener to be unregister.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If listener is null.
+     */
+    public void unregister(@NotNull Object listener) throws IllegalStateException, IllegalArgumentException {
+        checkInitialisation();
+        Preconditions.checkNotNull(listener, "Listener cannot be null.");
+        Object token = Recorder.INSTANCE.beginRegistration();
+        synchronized (events) {
+            for (EventGroup<? extends Event> el : events.values()) {
+                el.unregisterListener(listener);
+            }
+            if (listener == INTERNAL_LISTENER) {
+                registerPluginDisableEvent();
+            }
+        }
+        Recorder.INSTANCE.endRegistration(token, "unregister", null, null, listener);
+    }
+
+    /**
+     * Unregister every event from the specified listeners.
+     * <p>Unlike calling {@link #unregister(Object)} for every listener, the registered events are visited only once.
+     *
+     * @param listeners The listeners to be unregistered.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If listeners is null or contains null.
+     */
+    public void unregisterAll(@NotNull Collection<?> listeners) throws IllegalStateException, IllegalArgumentException {
+        checkInitialisation();
+        Preconditions.checkNotNull(listeners, "Listeners cannot be null.");
+        Set<Object> set = new HashSet<>(listeners);
+        Preconditions.checkArgument(!set.contains(null), "Listeners cannot contain null.");
+        if (!set.isEmpty()) {
+            unregisterMatching(set::contains);
+        }
+    }
+
+    /**
+     * Unregister every event from every listener which is an instance of the specified class.
+     *
+     * @param listenerClass The class of the listeners to be unregistered.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If listenerClass is null.
+     */
+    public void unregisterAll(@NotNull Class<?> listenerClass) throws IllegalStateException, IllegalArgumentException {
+        checkInitialisation();
+        Preconditions.checkNotNull(listenerClass, "Listener class cannot be null.");
+        unregisterMatching(listenerClass::isInstance);
+    }
+
+    /**
+     * Unregister every event from every listener which satisfies the provided predicate.
+     * <p>The predicate may be tested more than once for the same listener, and it must not register or unregister any event.
+     *
+     * @param filter The predicate which returns true for the listeners to be unregistered.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If filter is null.
+     */
+    public void unregisterIf(@NotNull Predicate<Object> filter) throws IllegalStateException, IllegalArgumentException {
+        checkInitialisation();
+        Preconditions.checkNotNull(filter, "Filter cannot be null.");
+        unregisterMatching(filter);
+    }
+
+    private void unregisterMatching(@NotNull Predicate<Object> filter) {
+        Predicate<Object> notInternal = listener -> listener != INTERNAL_LISTENER && filter.test(listener);
+        Object token = Recorder.INSTANCE.beginRegistration();
+        synchronized (events) {
+            for (EventGroup<? extends Event> el : events.values()) {
+                el.unregisterListeners(notInternal);
+            }
+        }
+        Recorder.INSTANCE.endRegistration(token, "unregisterIf", null, null, null);
+    }
+
+    /**
+     * Creates a new {@link Scope}, which registers events using this {@link EventManager}
+     * and unregisters all of them when it is closed.
+     *
+     * @return A new {@link Scope}.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     */
+    @NotNull
+    public Scope scope() throws IllegalStateException {
+        checkInitialisation();
+        return new Scope(null);
+    }
+
+    /**
+     * Remove every listener to an event without unregistering its bukkit {@link Listener}.
+     *
+     * @param event The event's class.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If event class is null.
+     */
+    public void clearEventListener(@NotNull Class<? extends Event> event) throws IllegalStateException, IllegalArgumentException {
+        checkInitialisation();
+        Preconditions.checkNotNull(event, "Event class cannot be null.");
+        Object token = Recorder.INSTANCE.beginRegistration();
+        synchronized (events) {
+            EventGroup<? extends Event> el = events.get(event);
+            if (el != null) {
+                el.clearListeners();
+                if (event == PluginDisableEvent.class) {
+                    registerPluginDisableEvent();
+                }
+            }
+        }
+        Recorder.INSTANCE.endRegistration(token, "clearEventListener", event, null, null);
+    }
+
+    /**
+     * Unregister every listener to an event and try to unregister its bukkit {@link Listener}.
+     *
+     * @param event The event's class.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If event class is null.
+     */
+    public void unregisterEvent(@NotNull Class<? extends Event> event) throws IllegalStateException, IllegalArgumentException {
+        checkInitialisation();
+        Preconditions.checkNotNull(event, "Event class cannot be null.");
+        Object token = Recorder.INSTANCE.beginRegistration();
+        synchronized (events) {
+            EventGroup<? extends Event> el = events.remove(event);
+            if (el != null) {
+                el.unregisterBukkitListener();
+                if (event == PluginDisableEvent.class) {
+                    registerPluginDisableEvent();
+                }
+            }
+        }
+        Recorder.INSTANCE.endRegistration(token, "unregisterEvent", event, null, null);
+    }
+
+    /**
+     * Call an event on the consumers registered to this {@link EventManager}, without passing through bukkit.
+     * <p>Consumers are called in priority order, like bukkit would do. Other plugins and other {@link EventManager}s don't receive the event,
+     * use {@link #fire(Event, boolean)} when they should.
+     * <p>Like with bukkit, synchronous events can be fired only from the main thread and asynchronous ones only from other threads.
+     *
+     * @param event The event to call.
+     * @param <E> The type of the event.
+     * @return The provided event, for chaining.
+     * @throws IllegalStateException If the {@link EventManager} is disabled or the event is fired from the wrong thread.
+     * @throws IllegalArgumentException If event is null.
+     */
+    @NotNull
+    public <E extends Event> E fire(@NotNull E event) throws IllegalStateException, IllegalArgumentException {
+        return fire(event, false);
+    }
+
+    /**
+     * Call an event on the consumers registered to this {@link EventManager} and, if requested, on every other bukkit listener.
+     * <p>When bukkit is true, the event is called using {@link org.bukkit.plugin.PluginManager#callEvent(Event)}, so the consumers
+     * of this {@link EventManager} are called through their bukkit listeners, in priority order together with the listeners of other plugins.
+     * Otherwise, see {@link #fire(Event)}.
+     *
+     * @param event The event to call.
+     * @param bukkit Whether the event should be called also on the listeners of other plugins.
+     * @param <E> The type of the event.
+     * @return The provided event, for chaining.
+     * @throws IllegalStateException If the {@link EventManager} is disabled or the event is fired from the wrong thread.
+     * @throws IllegalArgumentException If event is null.
+     */
+    @NotNull
+    public <E extends Event> E fire(@NotNull E event, boolean bukkit) throws IllegalStateException, IllegalArgumentException {
+        Preconditions.checkNotNull(event, "Event cannot be null.");
+        checkInitialisation();
+        if (bukkit) {
+            Bukkit.getPluginManager().callEvent(event);
+            return event;
+        }
+        if (event.isAsynchronous()) {
+            if (Bukkit.isPrimaryThread())
+                throw new IllegalStateException(event.getEventName() + " cannot be triggered asynchronously from primary server thread.");
+        } else if (!Bukkit.isPrimaryThread()) {
+            throw new IllegalStateException(event.getEventName() + " may only be triggered synchronously.");
+        }
+        EventGroup<? extends Event> el = events.get(event.getClass());
+        if (el != null) {
+            for (EventListener<? extends Event> l : el.hooked) {
+                l.call(event);
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Unregister every registered bukkit {@link Listener} and disable the event manager.
+     */
+    public void disable() {
+        if (!enabled.compareAndSet(true, false)) {
+            return;
+        }
+        Object token = Recorder.INSTANCE.beginRegistration();
+        unhookAll();
+        Recorder.INSTANCE.endRegistration(token, "disable", null, null, null);
+    }
+
+    // Must be called after the manager has been disabled. Closing the listeners also cancels their pending waiters
+    private void unhookAll() {
+        synchronized (events) {
+            for (EventGroup<? extends Event> el : events.values()) {
+                el.unregisterBukkitListener();
+            }
+            events.clear();
+        }
+        clearExpirations();
+    }
+
+    /**
+     * Gets the lock counters of an event, summed over every priority.
+     * <p>The counters are always collected and are cumulative since the event was first registered.
+     *
+     * @param event The event's class.
+     * @return The lock counters of the event, or {@link LockMetrics#EMPTY} if the event isn't registered.
+     * @throws IllegalArgumentException If event class is null.
+     */
+    @NotNull
+    public LockMetrics getLockMetrics(@NotNull Class<? extends Event> event) throws IllegalArgumentException {
+        Preconditions.checkNotNull(event, "Event class cannot be null.");
+        EventGroup<? extends Event> el;
+        synchronized (events) {
+            el = events.get(event);
+        }
+        return el == null ? LockMetrics.EMPTY : el.getLockMetrics();
+    }
+
+    /**
+     * Gets the lock counters of every registered event, summed over every priority.
+     *
+     * @return An immutable map containing the lock counters of every registered event.
+     */
+    @NotNull
+    public Map<Class<? extends Event>, LockMetrics> getLockMetrics() {
+        Map<Class<? extends Event>, LockMetrics> map = new HashMap<>();
+        synchronized (events) {
+            for (Entry<Class<? extends Event>, EventGroup<? extends Event>> e : events.entrySet()) {
+                map.put(e.getKey(), e.getValue().getLockMetrics());
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Gets the plugin which is used to register the listeners.
+     *
+     * @return The plugin which owns this {@link EventManager}.
+     */
+    public @NotNull Plugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Returns whether concurrent dispatch is used. See {@link #EventManager(Plugin, boolean)}.
+     *
+     * @return true if concurrent dispatch is used, false otherwise.
+     */
+    public boolean isConcurrentDispatch() {
+        return concurrentDispatch;
+    }
+
+    /**
+     * Returns if the event manager is enabled and can register or listen to events.
+     * <p>To disable the event manager and unregister every registered listener see {@link EventManager#disable()}.
+     *
+     * @return true if the event manager is enabled, false otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled.get();
+    }
+
+    private void registerPluginDisableEvent() {
+        register(INTERNAL_LISTENER, PluginDisableEvent.class, EventPriority.MONITOR, e -> {
+            if (e.getPlugin() == plugin && enabled.compareAndSet(true, false)) {
+                unhookAll();
+            }
+        });
+    }
+
+    private void checkInitialisation() throws IllegalStateException {
+        if (!enabled.get())
+            throw new IllegalStateException("EventManager is disabled. Cannot perform any action.");
+    }
+
+    /**
+     * A group of registrations which can be unregistered all together by closing the scope.
+     * <p>Closing a scope removes exactly the consumers registered through it, in time proportional to their number.
+     * Closing a scope also closes every scope created from it using {@link #scope()}.
+     * <p>Registrations made through a scope can also be removed by the methods of {@link EventManager}, like {@link EventManager#unregister(Object)}.
+     * The scope stops referencing them as soon as they are removed.
+     * <pre>{@code
+     * try (EventManager.Scope scope = manager.scope()) {
+     *     scope.register(arena, PlayerMoveEvent.class, event -> ...);
+     *     ...
+     * } // Every consumer registered through scope is removed here
+     * }</pre>
+     */
+    public final class Scope implements EventRegistry, AutoCloseable {
+
+        @Nullable
+        private final Scope parent;
+        // Handlers removed in other ways are dropped as soon as they are removed, so that a long-lived scope doesn't keep them.
+        // Concurrent, since they are dropped while holding the lock of their listener, without synchronizing on the scope
+        private volatile Map<EventListener<?>, Map<Handler<?>, Registration>> registrations = new ConcurrentHashMap<>();
+        private Set<Scope> children = new LinkedHashSet<>();
+        private boolean closed = false;
+
+        private Scope(@Nullable Scope parent) {
+            this.parent = parent;
+        }
+
+        /**
+         * See {@link EventManager#register(Object, Class, Consumer)}.
+         */
+        public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+            register(listener, event, EventPriority.NORMAL, consumer);
+        }
+
+        /**
+         * See {@link EventManager#register(Object, Class, EventPriority, Consumer)}.
+         */
+        @Override
+        public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+            checkRegistration(listener, event, priority);
+            Preconditions.checkNotNull(consumer, "Consumer cannot be null.");
+
+            add(listener, event, priority, new Handler<>(consumer));
+        }
+
+        /**
+         * See {@link EventManager#register(Object, Class, EventFilter, Consumer)}.
+         */
+        public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventFilter<? super E> filter, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+            register(listener, event, EventPriority.NORMAL, filter, consumer);
+        }
+
+        /**
+         * See {@link EventManager#register(Object, Class, EventPriority, EventFilter, Consumer)}.
+         */
+        public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, @NotNull EventFilter<? super E> filter, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+            checkRegistration(listener, event, priority);
+            Preconditions.checkNotNull(filter, "EventFilter cannot be null.");
+            Preconditions.checkNotNull(consumer, "Consumer cannot be null.");
+
+            add(listener, event, priority, new Handler<>(consumer, filter));
+        }
+
+        /**
+         * See {@link EventManager#register(Object, Class, Region, Function, Consumer)}.
+         */
+        public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull Region region, @NotNull Function<? super E, ? extends Location> locator, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+            register(listener, event, EventPriority.NORMAL, region, locator, consumer);
+        }
+
+        /**
+         * See {@link EventManager#register(Object, Class, EventPriority, Region, Function, Consumer)}.
+         */
+        public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, @NotNull Region region, @NotNull Function<? super E, ? extends Location> locator, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+            checkRegistration(listener, event, priority);
+            Preconditions.checkNotNull(region, "Region cannot be null.");
+            Preconditions.checkNotNull(locator, "Locator cannot be null.");
+            Preconditions.checkNotNull(consumer, "Consumer cannot be null.");
+
+            add(listener, event, priority, new RegionHandler<>(consumer, region, locator));
+        }
+
+        /**
+         * See {@link EventManager#registerAll(Object)}.
+         */
+        public void registerAll(@NotNull Object listener) throws IllegalStateException, IllegalArgumentException {
+            Preconditions.checkNotNull(listener, "Listener cannot be null.");
+            ListenerRegistrar<Object> registrar = SubscriberMethods.registrarOf(listener.getClass());
+            if (registrar != null) {
+                registrar.registerAll(this, listener);
+                return;
+            }
+            for (Subscription s : SubscriberMethods.of(listener.getClass()).getSubscriptions()) {
+                register(listener, (Class<Event>) s.getEvent(), s.getPriority(), s.bind(listener));
+            }
+        }
+
+        /**
+         * See {@link EventManager#stream(Class)}.
+         */
+        @NotNull
+        public <E extends Event> EventStream<E> stream(@NotNull Class<E> event) throws IllegalArgumentException {
+            return stream(event, EventPriority.NORMAL);
+        }
+
+        /**
+         * See {@link EventManager#stream(Class, EventPriority)}.
+         * <p>Subscriptions are registered through this scope.
+         */
+        @NotNull
+        public <E extends Event> EventStream<E> stream(@NotNull Class<E> event, @NotNull EventPriority priority) throws IllegalArgumentException {
+            Preconditions.checkNotNull(event, "Event class cannot be null.");
+            Preconditions.checkNotNull(priority, "EventPriority cannot be null.");
+            return new EventStream<>(EventManager.this, (Object listener, Consumer<E> consumer) -> register(listener, event, priority, consumer));
+        }
+
+        /**
+         * See {@link EventManager#register(Object, Class, CircuitBreaker, Consumer)}.
+         */
+        public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull CircuitBreaker breaker, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+            register(listener, event, EventPriority.NORMAL, breaker, consumer);
+        }
+
+        /**
+         * See {@link EventManager#register(Object, Class, EventPriority, CircuitBreaker, Consumer)}.
+         */
+        public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, @NotNull CircuitBreaker breaker, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+            checkRegistration(listener, event, priority);
+            Preconditions.checkNotNull(breaker, "CircuitBreaker cannot be null.");
+            Preconditions.checkNotNull(consumer, "Consumer cannot be null.");
+
+            add(listener, event, priority, new GuardedHandler<>(consumer, breaker, event.getSimpleName() + " in " + listener.getClass().getSimpleName()));
+        }
+
+        /**
+         * See {@link EventManager#register(Object, Class, long, TimeUnit, Consumer)}.
+         */
+        public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, long ttl, @NotNull TimeUnit unit, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+            register(listener, event, EventPriority.NORMAL, ttl, unit, consumer);
+        }
+
+        /**
+         * See {@link EventManager#register(Object, Class, EventPriority, long, TimeUnit, Consumer)}.
+         */
+        public <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, long ttl, @NotNull TimeUnit unit, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException {
+            checkRegistration(listener, event, priority);
+            Preconditions.checkArgument(ttl > 0, "TTL must be positive.");
+            Preconditions.checkNotNull(unit, "TimeUnit cannot be null.");
+            Preconditions.checkNotNull(consumer, "Consumer cannot be null.");
+
+            add(listener, event, priority, new ExpiringHandler<>(consumer, toTicks(ttl, unit)));
+        }
+
+        /**
+         * See {@link EventManager#registerParallel(Object, Class, long, TimeUnit, Function)}.
+         */
+        public <E extends Event> void registerParallel(@NotNull Object listener, @NotNull Class<E> event, long timeout, @NotNull TimeUnit unit, @NotNull Function<? super E, ? extends Consumer<? super E>> task) throws IllegalStateException, IllegalArgumentException {
+            registerParallel(listener, event, EventPriority.NORMAL, timeout, unit, task);
+        }
+
+        /**
+         * See {@link EventManager#registerParallel(Object, Class, EventPriority, long, TimeUnit, Function)}.
+         */
+        public <E extends Event> void registerParallel(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, long timeout, @NotNull TimeUnit unit, @NotNull Function<? super E, ? extends Consumer<? super E>> task) throws IllegalStateException, IllegalArgumentException {
+            checkRegistration(listener, event, priority);
+            Preconditions.checkArgument(timeout > 0, "Timeout must be positive.");
+            Preconditions.checkNotNull(unit, "TimeUnit cannot be null.");
+            Preconditions.checkNotNull(task, "Task cannot be null.");
+
+            add(listener, event, priority, new ParallelHandler<>(task, unit.toNanos(timeout)));
+        }
+
+        /**
+         * Creates a new {@link Scope} nested into this one. It is closed when this scope is closed.
+         *
+         * @return A new {@link Scope}.
+         * @throws IllegalStateException If this scope is closed or the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+         */
+        @NotNull
+        public synchronized Scope scope() throws IllegalStateException {
+            checkInitialisation();
+            checkOpen();
+            Scope child = new Scope(this);
+            children.add(child);
+            return child;
+        }
+
+        /**
+         * Returns whether this scope has been closed.
+         *
+         * @return true if this scope has been closed, false otherwise.
+         */
+        public synchronized boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * Unregisters every consumer registered through this scope and closes every nested scope.
+         * <p>Closing an already closed scope has no effect.
+         */
+        @Override
+        public void close() {
+            Map<EventListener<?>, Map<Handler<?>, Registration>> toRemove;
+            Set<Scope> toClose;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                toRemove = registrations;
+                toClose = children;
+                registrations = null;
+                children = null;
+            }
+            for (Scope child : toClose) {
+                child.close();
+            }
+            Object token = Recorder.INSTANCE.beginRegistration();
+            for (Entry<EventListener<?>, Map<Handler<?>, Registration>> e : toRemove.entrySet()) {
+                e.getKey().unregisterHandlers(new ArrayList<>(e.getValue().values()));
+            }
+            Recorder.INSTANCE.endRegistration(token, "closeScope", null, null, null);
+            if (parent != null) {
+                parent.removeChild(this);
+            }
+        }
+
+        private synchronized <E extends Event> void add(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, @NotNull Handler<E> handler) {
+            checkOpen();
+            handler.scope = this;
+            EventListener<E> l = addHandler(listener, event, priority, handler);
+            registrations.compute(l, (k, handlers) -> {
+                if (handlers == null)
+                    handlers = new ConcurrentHashMap<>();
+                handlers.put(handler, new Registration(listener, handler));
+                return handlers;
+            });
+            // The handler may have been removed before being added to the scope
+            if (handler.scope == null) {
+                removed(l, handler);
+            }
+        }
+
+        // Called while holding the write lock of the listener, so it must not synchronize on the scope
+        private void removed(@NotNull EventListener<?> l, @NotNull Handler<?> handler) {
+            Map<EventListener<?>, Map<Handler<?>, Registration>> r = registrations;
+            if (r != null) {
+                r.computeIfPresent(l, (k, handlers) -> {
+                    handlers.remove(handler);
+                    return handlers.isEmpty() ? null : handlers;
+                });
+            }
+        }
+
+        private synchronized void removeChild(@NotNull Scope child) {
+            if (!closed) {
+                children.remove(child);
+            }
+        }
+
+        private void checkOpen() throws IllegalStateException {
+            if (closed)
+                throw new IllegalStateException("Scope is closed.");
+        }
+
+    }
+
+    // Every priority of the event is hooked into bukkit using the group as listener,
+    // so that a single HandlerList#unregister(Listener) call unhooks them all
+    private final class EventGroup<E extends Event> implements Listener {
+
+        private final EventListener<E>[] eventListeners = new EventListener[priorities];
+        private final Class<E> clazz;
+        private boolean unhooked = false;
+        // The non-null eventListeners in priority order, republished on every change to be read by fire(Event) without locking
+        private volatile EventListener<E>[] hooked = new EventListener[0];
+
+        public EventGroup(@NotNull Class<E> clazz) {
+            this.clazz = Objects.requireNonNull(clazz, "Event class is null.");
+        }
+
+        @Nullable
+        public synchronized EventListener<E> getListener(@NotNull EventPriority priority, @NotNull Class<E> event) {
+            if (unhooked) {
+                return null;
+            }
+            EventListener<E> l = eventListeners[priority.getSlot()];
+            if (l == null) {
+                l = eventListeners[priority.getSlot()] = new EventListener<>(event, priority, this);
+                publish();
+            }
+            return l;
+        }
+
+        private void publish() {
+            int size = 0;
+            for (EventListener<E> l : eventListeners) {
+                if (l != null)
+                    size++;
+            }
+            EventListener<E>[] hooked = new EventListener[size];
+            int i = 0;
+            for (EventListener<E> l : eventListeners) {
+                if (l != null)
+                    hooked[i++] = l;
+            }
+            this.hooked = hooked;
+        }
+
+        public synchronized void unregisterListener(@NotNull Object listener) {
+            for (int i = 0; i < eventListeners.length; i++) {
+                EventListener<E> l = eventListeners[i];
+                if (l != null)
+                    l.unregisterListener(listener);
+            }
+        }
+
+        public synchronized void unregisterListeners(@NotNull Predicate<Object> filter) {
+            for (int i = 0; i < eventListeners.length; i++) {
+                EventListener<E> l = eventListeners[i];
+                if (l != null)
+                    l.unregisterListeners(filter);
+            }
+        }
+
+        public synchronized void clearListeners() {
+            for (int i = 0; i < eventListeners.length; i++) {
+                EventListener<E> l = eventListeners[i];
+                if (l != null)
+                    l.clearListeners();
+            }
+        }
+
+        public synchronized void unregisterBukkitListener() {
+            unhooked = true;
+            boolean anyHooked = false;
+            for (EventListener<E> l : eventListeners) {
+                if (l != null) {
+                    anyHooked = true;
+                    break;
+                }
+            }
+            if (!anyHooked) {
+                return;
+            }
+            HandlerList handlerList = HandlerLists.of(clazz);
+            if (handlerList != null) {
+                handlerList.unregister(this);
+            } else {
+                HandlerList.unregisterAll(this);
+            }
+            for (int i = 0; i < eventListeners.length; i++) {
+                EventListener<E> l = eventListeners[i];
+                if (l != null) {
+                    l.close();
+                    eventListeners[i] = null;
+                }
+            }
+            publish();
+        }
+
+        @NotNull
+        public synchronized LockMetrics getLockMetrics() {
+            LockMetrics metrics = LockMetrics.EMPTY;
+            for (EventListener<E> l : eventListeners) {
+                if (l != null)
+                    metrics = metrics.plus(l.lockStats.snapshot());
+            }
+            return metrics;
+        }
+
+    }
+
+    private final class EventListener<E extends Event> {
+
+        // Linked, so that handlers are called in the order their listeners have been registered
+        private final Map<Object, List<Handler<E>>> map = new LinkedHashMap<>();
+        private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+        private final LockStats lockStats = new LockStats();
+        private final Class<E> clazz;
+        private final EventPriority priority;
+        // Copy-on-write view of map, reset by every write and rebuilt by the next call.
+        // Synchronous events are dispatched from it without taking the lock.
+        // With concurrent dispatch it is rebuilt by every write instead and no event takes the lock
+        private volatile Snapshot snapshot;
+        // Chunk grids of the handlers of regions by locator, reused by the next snapshots until a handler of their locator
+        // is registered or unregistered. Entries are removed while holding the write lock and added while building a snapshot
+        private final Map<Function<?, ?>, RegionIndex<Registration>> regionIndexes = new ConcurrentHashMap<>();
+        // Guarded by the write lock
+        private boolean closed = false;
+        private final Waiters<E> waiters;
+
+        public EventListener(@NotNull Class<E> clazz, @NotNull EventPriority priority, @NotNull Listener hook) {
+            this.clazz = Objects.requireNonNull(clazz, "Event class is null.");
+            this.priority = Objects.requireNonNull(priority, "EventPriority is null.");
+            this.waiters = new Waiters<>(clazz);
+            if (concurrentDispatch) {
+                snapshot = buildSnapshot();
+            }
+            Bukkit.getPluginManager().registerEvent(clazz, hook, priority, (listener, event) -> call(event), plugin);
+        }
+
+        public boolean register(@NotNull Object listener, @NotNull Handler<E> handler) {
+            Preconditions.checkNotNull(listener, "Listener is null.");
+            Preconditions.checkNotNull(handler, "Handler is null.");
+            long acquired = lockStats.lockWrite(readWriteLock.writeLock());
+            try {
+                if (closed) {
+                    return false;
+                }
+                List<Handler<E>> l = map.computeIfAbsent(listener, k -> new LinkedList<>());
+                l.add(handler);
+                changed(handler);
+                return true;
             } finally {
-                readWriteLock.writeLock().unlock();
+                invalidate();
+                lockStats.unlockWrite(readWriteLock.writeLock(), acquired);
             }
         }
 
-        public void unregisterBukkitListener() {
-            readWriteLock.writeLock().lock();
+        public void unregisterListener(@NotNull Object listener) {
+            long acquired = lockStats.lockWrite(readWriteLock.writeLock());
             try {
-                HandlerList.unregisterAll(this);
+                removed(map.remove(listener));
+            } finally {
+                invalidate();
+                lockStats.unlockWrite(readWriteLock.writeLock(), acquired);
+            }
+            waiters.cancelListeners(listener::equals);
+        }
+
+        public void unregisterListeners(@NotNull Predicate<Object> filter) {
+            long acquired = lockStats.lockWrite(readWriteLock.writeLock());
+            try {
+                Iterator<Entry<Object, List<Handler<E>>>> it = map.entrySet().iterator();
+                while (it.hasNext()) {
+                    Entry<Object, List<Handler<E>>> e = it.next();
+                    if (filter.test(e.getKey())) {
+                        removed(e.getValue());
+                        it.remove();
+                    }
+                }
+            } finally {
+                invalidate();
+                lockStats.unlockWrite(readWriteLock.writeLock(), acquired);
+            }
+            waiters.cancelListeners(filter);
+        }
+
+        public void unregisterHandlers(@NotNull List<Registration> registrations) {
+            long acquired = lockStats.lockWrite(readWriteLock.writeLock());
+            try {
+                for (Registration r : registrations) {
+                    List<Handler<E>> l = map.get(r.listener);
+                    if (l != null && l.remove(r.handler)) {
+                        removed((Handler<E>) r.handler);
+                        if (l.isEmpty())
+                            map.remove(r.listener);
+                    }
+                }
+            } finally {
+                invalidate();
+                lockStats.unlockWrite(readWriteLock.writeLock(), acquired);
+            }
+        }
+
+        public void clearListeners() {
+            long acquired = lockStats.lockWrite(readWriteLock.writeLock());
+            try {
+                for (List<Handler<E>> l : map.values()) {
+                    removed(l);
+                }
+                map.clear();
+            } finally {
+                invalidate();
+                lockStats.unlockWrite(readWriteLock.writeLock(), acquired);
+            }
+            waiters.cancelAll();
+        }
+
+        public void close() {
+            long acquired = lockStats.lockWrite(readWriteLock.writeLock());
+            try {
+                closed = true;
+                for (List<Handler<E>> l : map.values()) {
+                    removed(l);
+                }
                 map.clear();
             } finally {
-                readWriteLock.writeLock().unlock();
+                invalidate();
+                lockStats.unlockWrite(readWriteLock.writeLock(), acquired);
             }
+            waiters.close();
         }
 
         public void call(@NotNull Event e) {
@@ -327,22 +1518,607 @@ public final class EventManager {
                 return;
             }
             E ev = (E) e;
-            readWriteLock.readLock().lock();
+            callHandlers(ev);
+            // Waiters are called after the other consumers, without holding the lock
+            waiters.fire(ev);
+        }
+
+        private void callHandlers(@NotNull E ev) {
+            Recorder recorder = Recorder.INSTANCE;
+            Object dispatch = recorder.beginDispatch();
+            Snapshot handlers = null;
+            if (concurrentDispatch) {
+                try {
+                    handlers = snapshot;
+                    List<Fork<E>> forks = dispatch(ev, handlers, ev.isAsynchronous());
+                    if (forks != null) {
+                        join(forks, ev);
+                    }
+                } finally {
+                    recorder.endDispatch(dispatch, clazz, priority, handlers == null ? 0 : handlers.size);
+                }
+                return;
+            }
+            if (!ev.isAsynchronous()) {
+                // Synchronous events are fired only by the main thread, so the handlers
+                // can be read from the snapshot without locking
+                try {
+                    handlers = snapshot;
+                    if (handlers == null) {
+                        handlers = rebuildSnapshot();
+                    }
+                    dispatch(ev, handlers, false);
+                } finally {
+                    recorder.endDispatch(dispatch, clazz, priority, handlers == null ? 0 : handlers.size);
+                }
+                return;
+            }
+            try {
+                List<Fork<E>> forks;
+                long acquired = lockStats.lockRead(readWriteLock.readLock());
+                try {
+                    handlers = snapshot;
+                    if (handlers == null) {
+                        handlers = snapshot = buildSnapshot();
+                    }
+                    forks = dispatch(ev, handlers, true);
+                } finally {
+                    lockStats.unlockRead(readWriteLock.readLock(), acquired);
+                }
+                // Joined after releasing the lock, so writers aren't blocked until the tasks complete or time out
+                if (forks != null) {
+                    join(forks, ev);
+                }
+            } finally {
+                recorder.endDispatch(dispatch, clazz, priority, handlers == null ? 0 : handlers.size);
+            }
+        }
+
+        // Must be called while holding the write lock
+        private void removed(@Nullable List<Handler<E>> handlers) {
+            if (handlers != null) {
+                for (Handler<E> h : handlers) {
+                    removed(h);
+                }
+            }
+        }
+
+        // Must be called while holding the write lock
+        private void removed(@NotNull Handler<E> handler) {
+            if (handler instanceof ExpiringHandler) {
+                synchronized (expirations) {
+                    ((ExpiringHandler<E>) handler).cancel();
+                }
+            }
+            Scope scope = handler.scope;
+            if (scope != null) {
+                // Reset before dropping the handler, so that Scope.add(...) sees it if it hasn't added the handler yet
+                handler.scope = null;
+                scope.removed(this, handler);
+            }
+            changed(handler);
+        }
+
+        // Must be called while holding the write lock
+        private void changed(@NotNull Handler<E> handler) {
+            if (handler instanceof RegionHandler)
+                regionIndexes.remove(((RegionHandler<E>) handler).locator);
+        }
+
+        // Must be called while holding the write lock
+        private void invalidate() {
+            snapshot = concurrentDispatch ? buildSnapshot() : null;
+        }
+
+        private Snapshot rebuildSnapshot() {
+            long acquired = lockStats.lockRead(readWriteLock.readLock());
+            try {
+                // Published while still holding the read lock, so no write can reset it in between
+                Snapshot handlers = buildSnapshot();
+                snapshot = handlers;
+                return handlers;
+            } finally {
+                lockStats.unlockRead(readWriteLock.readLock(), acquired);
+            }
+        }
+
+        // Must be called while holding the lock. Readers building a snapshot at the same time
+        // don't see any write, so they build the same chunk grids
+        private Snapshot buildSnapshot() {
+            // Handlers are kept in order, each one pointing to its filter. Equal filters share the same index.
+            // Handlers of regions are indexed by their locator instead, rebuilding only the chunk grids which changed
+            Map<EventFilter<?>, Integer> filterIndexes = new LinkedHashMap<>();
+            List<Registration> handlers = new ArrayList<>();
+            List<Integer> filterOf = new ArrayList<>();
+            Map<Function<?, ?>, RegionIndex.Builder<Registration>> regions = new LinkedHashMap<>();
+            Set<Function<?, ?>> locators = new LinkedHashSet<>();
+            int size = 0;
+            for (Entry<Object, List<Handler<E>>> l : map.entrySet()) {
+                for (Handler<E> m : l.getValue()) {
+                    Registration r = new Registration(l.getKey(), m);
+                    if (m instanceof RegionHandler) {
+                        RegionHandler<E> rh = (RegionHandler<E>) m;
+                        locators.add(rh.locator);
+                        if (!regionIndexes.containsKey(rh.locator))
+                            regions.computeIfAbsent(rh.locator, k -> new RegionIndex.Builder<>()).add(rh.region, r);
+                    } else {
+                        handlers.add(r);
+                        filterOf.add(m.filter == null ? -1 : filterIndexes.computeIfAbsent(m.filter, k -> filterIndexes.size()));
+                    }
+                    size++;
+                }
+            }
+            EventFilter<?>[] filters = filterIndexes.keySet().toArray(new EventFilter<?>[0]);
+            boolean[] stateful = new boolean[filters.length];
+            for (int i = 0; i < filters.length; i++) {
+                stateful[i] = Filters.isStateful(filters[i]);
+            }
+            int[] filterIndexOf = new int[filterOf.size()];
+            for (int i = 0; i < filterIndexOf.length; i++) {
+                filterIndexOf[i] = filterOf.get(i);
+            }
+            RegionIndex<Registration>[] indexes = new RegionIndex[locators.size()];
+            int i = 0;
+            for (Function<?, ?> locator : locators) {
+                // Another reader may have built the chunk grid in the meantime, in which case the builder may be incomplete
+                RegionIndex<Registration> index = regionIndexes.get(locator);
+                if (index == null) {
+                    index = regions.get(locator).build();
+                    regionIndexes.put(locator, index);
+                }
+                indexes[i++] = index;
+            }
+            return new Snapshot(filters, stateful, handlers.toArray(new Registration[0]), filterIndexOf, locators.toArray(new Function<?, ?>[0]), indexes, size);
+        }
+
+        // Returns the tasks run in parallel, which must be joined by the caller
+        @Nullable
+        private List<Fork<E>> dispatch(@NotNull E ev, @NotNull Snapshot snapshot, boolean parallel) {
+            EventFilter<?>[] filters = snapshot.filters;
+            Registration[] handlers = snapshot.handlers;
+            // Every filter is tested when the first handler using it is reached and its result is reused by the next ones.
+            // results[f] is 0 if the filter hasn't been tested yet, otherwise the number of handlers called before the test plus one,
+            // negated if the filter didn't pass
+            int[] results = filters.length == 0 ? null : new int[filters.length];
+            int called = 0;
+            List<Fork<E>> forks = null;
+            for (int i = 0; i < handlers.length; i++) {
+                int f = snapshot.filterOf[i];
+                if (f >= 0) {
+                    int result = results[f];
+                    // Filters depending on what handlers can change are tested again if a handler has been called since
+                    if (result == 0 || snapshot.stateful[f] && Math.abs(result) != called + 1) {
+                        result = test(filters[f], ev) ? called + 1 : -(called + 1);
+                        results[f] = result;
+                    }
+                    if (result < 0) {
+                        continue;
+                    }
+                }
+                forks = handle(handlers[i], ev, parallel, forks);
+                called++;
+            }
+            // Handlers of regions are called only if the location of the event is inside their region
+            for (int i = 0; i < snapshot.locators.length; i++) {
+                Location loc = locate(snapshot.locators[i], ev);
+                World world = loc == null ? null : loc.getWorld();
+                RegionIndex.WorldIndex index = world == null ? null : snapshot.regions[i].world(world.getName());
+                if (index == null) {
+                    continue;
+                }
+                double x = loc.getX(), y = loc.getY(), z = loc.getZ();
+                Object[] chunk = index.chunk(x, z);
+                for (int j = 0; j < chunk.length; j += 2) {
+                    if (((Region) chunk[j]).contains(x, y, z))
+                        forks = handle((Registration) chunk[j + 1], ev, parallel, forks);
+                }
+                Object[] large = index.large();
+                for (int j = 0; j < large.length; j += 2) {
+                    if (((Region) large[j]).contains(x, y, z))
+                        forks = handle((Registration) large[j + 1], ev, parallel, forks);
+                }
+            }
+            return forks;
+        }
+
+        @Nullable
+        private List<Fork<E>> handle(@NotNull Registration r, @NotNull E ev, boolean parallel, @Nullable List<Fork<E>> forks) {
+            Recorder recorder = Recorder.INSTANCE;
+            Object instance = r.listener;
+            Handler<E> m = (Handler<E>) r.handler;
+            if (parallel && m instanceof ParallelHandler) {
+                if (forks == null)
+                    forks = new ArrayList<>();
+                try {
+                    forks.add(new Fork<>(instance, (ParallelHandler<E>) m, ev, parallelExecutor));
+                    return forks;
+                } catch (RejectedExecutionException ignored) {
+                    // Run it on the calling thread
+                }
+            }
+            Object handler = recorder.beginHandler();
+            try {
+                m.accept(ev);
+            } catch (Throwable t) {
+                printError(instance, t);
+            } finally {
+                recorder.endHandler(handler, clazz, priority, instance);
+            }
+            return forks;
+        }
+
+        @Nullable
+        private Location locate(@NotNull Function<?, ?> locator, @NotNull E ev) {
+            try {
+                return ((Function<? super E, ? extends Location>) locator).apply(ev);
+            } catch (Throwable t) {
+                System.err.println("Location of event " + clazz.getSimpleName() + " has thrown an error:");
+                t.printStackTrace();
+                return null;
+            }
+        }
+
+        private boolean test(@NotNull EventFilter<?> filter, @NotNull E ev) {
             try {
-                for (Entry<Object, List<Consumer<E>>> l : map.entrySet()) {
-                    Object instance = l.getKey();
-                    for (Consumer<E> m : l.getValue()) {
-                        try {
-                            m.accept(ev);
-                        } catch (Throwable t) {
-                            System.err.println("Event " + clazz.getSimpleName() + " in " + instance.getClass().getSimpleName() + " has thrown an error:");
-                            t.printStackTrace();
-                        }
+                return ((EventFilter<? super E>) filter).test(ev);
+            } catch (Throwable t) {
+                System.err.println("Filter " + filter + " of event " + clazz.getSimpleName() + " has thrown an error:");
+                t.printStackTrace();
+                return false;
+            }
+        }
+
+        private void join(@NotNull List<Fork<E>> forks, @NotNull E ev) {
+            boolean interrupted = false;
+            for (Fork<E> fork : forks) {
+                if (interrupted) {
+                    fork.future.cancel(true);
+                    continue;
+                }
+                Consumer<? super E> merge;
+                try {
+                    long remaining = fork.handler.timeout - (System.nanoTime() - fork.start);
+                    merge = fork.future.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException ex) {
+                    fork.future.cancel(true);
+                    System.err.println("Event " + clazz.getSimpleName() + " in " + fork.instance.getClass().getSimpleName() + " has timed out after " + TimeUnit.NANOSECONDS.toMillis(fork.handler.timeout) + "ms.");
+                    continue;
+                } catch (ExecutionException ex) {
+                    printError(fork.instance, ex.getCause());
+                    continue;
+                } catch (InterruptedException ex) {
+                    fork.future.cancel(true);
+                    interrupted = true;
+                    continue;
+                }
+                if (merge != null) {
+                    try {
+                        merge.accept(ev);
+                    } catch (Throwable t) {
+                        printError(fork.instance, t);
                     }
                 }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void printError(@NotNull Object instance, @NotNull Throwable t) {
+            System.err.println("Event " + clazz.getSimpleName() + " in " + instance.getClass().getSimpleName() + " has thrown an error:");
+            t.printStackTrace();
+        }
+
+    }
+
+    private static class Handler<E extends Event> {
+
+        private final Consumer<? super E> consumer;
+        @Nullable
+        private final EventFilter<? super E> filter;
+        // The scope the handler has been registered through, reset once the handler is removed
+        @Nullable
+        private volatile Scope scope;
+
+        public Handler(@NotNull Consumer<? super E> consumer) {
+            this(consumer, null);
+        }
+
+        public Handler(@NotNull Consumer<? super E> consumer, @Nullable EventFilter<? super E> filter) {
+            this.consumer = Objects.requireNonNull(consumer, "Consumer is null.");
+            this.filter = filter;
+        }
+
+        public void accept(@NotNull E event) {
+            consumer.accept(event);
+        }
+
+    }
+
+    private static final class RegionHandler<E extends Event> extends Handler<E> {
+
+        private final Region region;
+        private final Function<? super E, ? extends Location> locator;
+
+        public RegionHandler(@NotNull Consumer<? super E> consumer, @NotNull Region region, @NotNull Function<? super E, ? extends Location> locator) {
+            super(consumer);
+            this.region = Objects.requireNonNull(region, "Region is null.");
+            this.locator = Objects.requireNonNull(locator, "Locator is null.");
+        }
+
+    }
+
+    private static final class ExpiringHandler<E extends Event> extends Handler<E> {
+
+        private final long ticks;
+        // Both guarded by the wheel
+        @Nullable
+        private TimingWheel.Timeout<Expiration> timeout;
+        private boolean cancelled = false;
+
+        public ExpiringHandler(@NotNull Consumer<? super E> consumer, long ticks) {
+            super(consumer);
+            this.ticks = ticks;
+        }
+
+        // Must be called while synchronized on the wheel
+        public void cancel() {
+            cancelled = true;
+            if (timeout != null)
+                timeout.cancel();
+        }
+
+    }
+
+    private static final class ParallelHandler<E extends Event> extends Handler<E> {
+
+        private final Function<? super E, ? extends Consumer<? super E>> task;
+        private final long timeout;
+
+        public ParallelHandler(@NotNull Function<? super E, ? extends Consumer<? super E>> task, long timeout) {
+            super(event -> {
+                Consumer<? super E> merge = task.apply(event);
+                if (merge != null)
+                    merge.accept(event);
+            });
+            this.task = task;
+            this.timeout = timeout;
+        }
+
+    }
+
+    private final class GuardedHandler<E extends Event> extends Handler<E> {
+
+        private final CircuitBreaker breaker;
+        private final String name;
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile boolean tripped = false;
+        private volatile long trippedUntil;
+
+        public GuardedHandler(@NotNull Consumer<? super E> consumer, @NotNull CircuitBreaker breaker, @NotNull String name) {
+            super(consumer);
+            this.breaker = Objects.requireNonNull(breaker, "CircuitBreaker is null.");
+            this.name = Objects.requireNonNull(name, "Name is null.");
+        }
+
+        @Override
+        public void accept(@NotNull E event) {
+            boolean retry = tripped;
+            if (retry && System.nanoTime() - trippedUntil < 0) {
+                return;
+            }
+            long budget = breaker.getBudget(TimeUnit.NANOSECONDS);
+            long start = System.nanoTime();
+            Outcome outcome = Outcome.FAILED;
+            try {
+                if (breaker.hasHardTimeout() && event.isAsynchronous()) {
+                    outcome = acceptWithTimeout(event, budget);
+                } else {
+                    super.accept(event);
+                    outcome = Outcome.SUCCEEDED;
+                }
             } finally {
-                readWriteLock.readLock().unlock();
+                // A consumer whose caller has been interrupted is counted neither as a success nor as a failure
+                if (outcome != Outcome.INTERRUPTED) {
+                    long elapsed = System.nanoTime() - start;
+                    if (outcome == Outcome.SUCCEEDED && elapsed > budget) {
+                        System.err.println("Event " + name + " has exceeded its time budget (" + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms > " + TimeUnit.NANOSECONDS.toMillis(budget) + "ms).");
+                        outcome = Outcome.FAILED;
+                    }
+                    if (outcome == Outcome.SUCCEEDED) {
+                        onSuccess(retry);
+                    } else {
+                        onFailure(retry);
+                    }
+                }
+            }
+        }
+
+        @NotNull
+        private Outcome acceptWithTimeout(@NotNull E event, long budget) {
+            // A FutureTask, unlike a CompletableFuture, interrupts the consumer when cancelled
+            FutureTask<Void> future = new FutureTask<>(() -> super.accept(event), null);
+            try {
+                parallelExecutor.execute(future);
+            } catch (RejectedExecutionException e) {
+                super.accept(event);
+                return Outcome.SUCCEEDED;
+            }
+            try {
+                future.get(budget, TimeUnit.NANOSECONDS);
+                return Outcome.SUCCEEDED;
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                System.err.println("Event " + name + " has exceeded its time budget of " + TimeUnit.NANOSECONDS.toMillis(budget) + "ms and has been interrupted.");
+                return Outcome.FAILED;
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                return Outcome.INTERRUPTED;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException) cause;
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                throw new RuntimeException(cause);
+            }
+        }
+
+        private void onSuccess(boolean retry) {
+            if (failures.get() != 0) {
+                failures.set(0);
+            }
+            if (retry) {
+                tripped = false;
+                System.err.println("Event " + name + " has been re-enabled.");
+            }
+        }
+
+        private void onFailure(boolean retry) {
+            if (retry || failures.incrementAndGet() >= breaker.getFailureThreshold()) {
+                failures.set(0);
+                trippedUntil = System.nanoTime() + breaker.getCooldown(TimeUnit.NANOSECONDS);
+                tripped = true;
+                System.err.println("Event " + name + " has been disabled for " + breaker.getCooldown(TimeUnit.MILLISECONDS) + "ms after too many failures.");
+            }
+        }
+
+    }
+
+    // The outcome of a call to a GuardedHandler
+    private enum Outcome {
+        SUCCEEDED,
+        FAILED,
+        // The calling thread has been interrupted while waiting for the consumer
+        INTERRUPTED
+    }
+
+    // Completes the futures returned by await(...) which timed out. Dependent actions of those futures
+    // may run on its thread, so it must not be used for anything else
+    private static final class Timeouts {
+
+        private static final ScheduledExecutorService EXECUTOR;
+
+        static {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread t = new Thread(r, "EventManagerAPI Timeouts");
+                t.setDaemon(true);
+                return t;
+            });
+            // Most waiters complete before their timeout
+            executor.setRemoveOnCancelPolicy(true);
+            EXECUTOR = executor;
+        }
+    }
+
+    // Runs tasks through the global region scheduler of Folia, which isn't part of the Bukkit API and is looked up reflectively
+    private static final class GlobalRegionScheduler {
+
+        @Nullable
+        private static final Method GET_SCHEDULER, RUN_AT_FIXED_RATE, CANCEL;
+
+        static {
+            Method get, run, cancel;
+            try {
+                get = Bukkit.class.getMethod("getGlobalRegionScheduler");
+                run = get.getReturnType().getMethod("runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class);
+                cancel = run.getReturnType().getMethod("cancel");
+            } catch (ReflectiveOperationException | LinkageError e) {
+                get = run = cancel = null;
+            }
+            GET_SCHEDULER = get;
+            RUN_AT_FIXED_RATE = run;
+            CANCEL = cancel;
+        }
+
+        /**
+         * @return A {@link Runnable} cancelling the task.
+         * @throws IllegalStateException If the server doesn't have a global region scheduler or the task couldn't be scheduled.
+         */
+        @NotNull
+        static Runnable runEveryTick(@NotNull Plugin plugin, @NotNull Runnable task) throws IllegalStateException {
+            if (GET_SCHEDULER == null)
+                throw new IllegalStateException("The server supports neither the BukkitScheduler nor the GlobalRegionScheduler. Cannot register consumers with a ttl.");
+            Object scheduled;
+            try {
+                Consumer<Object> consumer = t -> task.run();
+                scheduled = RUN_AT_FIXED_RATE.invoke(GET_SCHEDULER.invoke(null), plugin, consumer, 1L, 1L);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Couldn't schedule a task with the GlobalRegionScheduler.", e);
             }
+            return () -> {
+                try {
+                    CANCEL.invoke(scheduled);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Couldn't cancel a task of the GlobalRegionScheduler.", e);
+                }
+            };
+        }
+    }
+
+    private static final class Expiration {
+
+        private final EventListener<?> listener;
+        private final Registration registration;
+
+        public Expiration(@NotNull EventListener<?> listener, @NotNull Registration registration) {
+            this.listener = listener;
+            this.registration = registration;
+        }
+
+    }
+
+    private static final class Registration {
+
+        private final Object listener;
+        private final Handler<?> handler;
+
+        public Registration(@NotNull Object listener, @NotNull Handler<?> handler) {
+            this.listener = listener;
+            this.handler = handler;
+        }
+
+    }
+
+    private static final class Snapshot {
+
+        private final EventFilter<?>[] filters;
+        // Whether each filter must be tested again after a handler has been called
+        private final boolean[] stateful;
+        private final Registration[] handlers;
+        // The index of the filter of each handler, or -1
+        private final int[] filterOf;
+        private final Function<?, ?>[] locators;
+        private final RegionIndex<Registration>[] regions;
+        private final int size;
+
+        public Snapshot(@NotNull EventFilter<?>[] filters, @NotNull boolean[] stateful, @NotNull Registration[] handlers, @NotNull int[] filterOf, @NotNull Function<?, ?>[] locators, @NotNull RegionIndex<Registration>[] regions, int size) {
+            this.filters = filters;
+            this.stateful = stateful;
+            this.handlers = handlers;
+            this.filterOf = filterOf;
+            this.locators = locators;
+            this.regions = regions;
+            this.size = size;
+        }
+
+    }
+
+    private static final class Fork<E extends Event> {
+
+        private final Object instance;
+        private final ParallelHandler<E> handler;
+        // A FutureTask, unlike a CompletableFuture, interrupts the task when cancelled
+        private final FutureTask<? extends Consumer<? super E>> future;
+        private final long start;
+
+        public Fork(@NotNull Object instance, @NotNull ParallelHandler<E> handler, @NotNull E event, @NotNull Executor executor) {
+            this.instance = instance;
+            this.handler = handler;
+            this.start = System.nanoTime();
+            this.future = new FutureTask<>(() -> handler.task.apply(event));
+            executor.execute(future);
         }
 
     }
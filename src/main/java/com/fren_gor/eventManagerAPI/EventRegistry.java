@@ -0,0 +1,44 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+/**
+ * Something consumers can be registered to, like an {@link EventManager} or an {@link EventManager.Scope}.
+ * <p>Used by {@link ListenerRegistrar}s, so that generated registrars work with both of them.
+ */
+public interface EventRegistry {
+
+    /**
+     * Register a listener to an {@link Event} with a certain priority.
+     *
+     * @param listener The listener. It can be every object.
+     * @param event The event to listen to.
+     * @param priority The event priority.
+     * @param consumer The code to be run when the event is called.
+     * @throws IllegalStateException If the registry cannot register any consumer.
+     * @throws IllegalArgumentException If any argument is null or the {@link org.bukkit.plugin.Plugin} is disabled.
+     * @see EventManager#register(Object, Class, EventPriority, Consumer)
+     */
+    <E extends Event> void register(@NotNull Object listener, @NotNull Class<E> event, @NotNull EventPriority priority, @NotNull Consumer<E> consumer) throws IllegalStateException, IllegalArgumentException;
+
+}
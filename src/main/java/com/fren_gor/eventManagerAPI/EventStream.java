@@ -0,0 +1,174 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A stream of the values produced by an {@link Event}, transformed by a chain of operators.
+ * <p>Streams are immutable descriptions: every operator returns a new stream and nothing is registered until
+ * {@link #subscribe(Object, Consumer)} is called. On subscription the whole chain is fused into a single consumer,
+ * which is registered like any other consumer. Operators don't use any queue and, unless {@link #async(Executor)} is used,
+ * don't allocate anything per event, so the values are passed to the subscriber on the thread calling the event.
+ * <p>Use the {@code EventPublisher} of the {@code eventmanagerapi-flow} module (Java 9 or later) to subscribe to a stream
+ * with back-pressure.
+ *
+ * @param <T> The type of the values of the stream.
+ * @see EventManager#stream(Class, org.bukkit.event.EventPriority)
+ */
+public final class EventStream<T> {
+
+    private static final Object NONE = new Object();
+
+    private final EventManager manager;
+    // Registers the fused consumer to the event
+    private final BiConsumer<Object, Consumer<Object>> source;
+    @Nullable
+    private final EventStream<?> parent;
+    @Nullable
+    private final Function<Consumer<Object>, Consumer<Object>> operator;
+
+    <E extends Event> EventStream(@NotNull EventManager manager, @NotNull BiConsumer<Object, Consumer<E>> register) {
+        this.manager = manager;
+        this.source = (BiConsumer<Object, Consumer<Object>>) (BiConsumer<?, ?>) register;
+        this.parent = null;
+        this.operator = null;
+    }
+
+    private EventStream(@NotNull EventStream<?> parent, @NotNull Function<Consumer<Object>, Consumer<Object>> operator) {
+        this.manager = parent.manager;
+        this.source = parent.source;
+        this.parent = parent;
+        this.operator = operator;
+    }
+
+    /**
+     * @param predicate The predicate the values must satisfy.
+     * @return A stream containing only the values satisfying the predicate.
+     * @throws IllegalArgumentException If predicate is null.
+     */
+    @NotNull
+    public EventStream<T> filter(@NotNull Predicate<? super T> predicate) throws IllegalArgumentException {
+        Preconditions.checkNotNull(predicate, "Predicate cannot be null.");
+        return new EventStream<>(this, downstream -> value -> {
+            if (predicate.test((T) value))
+                downstream.accept(value);
+        });
+    }
+
+    /**
+     * Null results of the mapper are dropped.
+     *
+     * @param mapper The function to apply to every value.
+     * @param <R> The type of the new values.
+     * @return A stream containing the results of the mapper.
+     * @throws IllegalArgumentException If mapper is null.
+     */
+    @NotNull
+    public <R> EventStream<R> map(@NotNull Function<? super T, ? extends R> mapper) throws IllegalArgumentException {
+        Preconditions.checkNotNull(mapper, "Mapper cannot be null.");
+        return new EventStream<>(this, downstream -> value -> {
+            R mapped = mapper.apply((T) value);
+            if (mapped != null)
+                downstream.accept(mapped);
+        });
+    }
+
+    /**
+     * @return A stream which drops the values equal to the previous one.
+     */
+    @NotNull
+    public EventStream<T> distinctUntilChanged() {
+        return distinctUntilChanged(Function.identity());
+    }
+
+    /**
+     * Every subscription keeps its own last key. Keys are compared using {@link Object#equals(Object)}.
+     *
+     * @param keySelector The function which extracts the key to compare from every value.
+     * @return A stream which drops the values whose key is equal to the key of the previous one.
+     * @throws IllegalArgumentException If keySelector is null.
+     */
+    @NotNull
+    public EventStream<T> distinctUntilChanged(@NotNull Function<? super T, ?> keySelector) throws IllegalArgumentException {
+        Preconditions.checkNotNull(keySelector, "Key selector cannot be null.");
+        return new EventStream<>(this, downstream -> {
+            // Events may be called concurrently, so the last key is swapped atomically
+            AtomicReference<Object> last = new AtomicReference<>(NONE);
+            return value -> {
+                Object key = keySelector.apply((T) value);
+                if (!Objects.equals(last.getAndSet(key), key))
+                    downstream.accept(value);
+            };
+        });
+    }
+
+    /**
+     * Moves the rest of the stream to the provided executor.
+     * <p>This is the only operator which allocates per value. The values passed to the executor must not depend on the event
+     * being still called, since the rest of the stream may run after the event has completed.
+     *
+     * @param executor The executor on which the rest of the stream runs.
+     * @return A stream whose values are passed on using the executor.
+     * @throws IllegalArgumentException If executor is null.
+     */
+    @NotNull
+    public EventStream<T> async(@NotNull Executor executor) throws IllegalArgumentException {
+        Preconditions.checkNotNull(executor, "Executor cannot be null.");
+        return new EventStream<>(this, downstream -> value -> executor.execute(() -> downstream.accept(value)));
+    }
+
+    /**
+     * Subscribe to the stream.
+     * <p>The fused consumer is registered using the provided listener, so it can be unregistered using {@link EventManager#unregister(Object)}.
+     *
+     * @param listener The listener. It can be every object.
+     * @param subscriber The code to be run for every value of the stream.
+     * @throws IllegalStateException If the {@link EventManager} is disabled. See {@link EventManager#isEnabled()}.
+     * @throws IllegalArgumentException If any argument is null or the plugin is disabled.
+     */
+    public void subscribe(@NotNull Object listener, @NotNull Consumer<? super T> subscriber) throws IllegalStateException, IllegalArgumentException {
+        Preconditions.checkNotNull(listener, "Listener cannot be null.");
+        Preconditions.checkNotNull(subscriber, "Subscriber cannot be null.");
+        Consumer<Object> chain = (Consumer<Object>) subscriber;
+        for (EventStream<?> s = this; s.operator != null; s = s.parent) {
+            chain = s.operator.apply(chain);
+        }
+        source.accept(listener, chain);
+    }
+
+    /**
+     * Gets the {@link EventManager} the stream subscribes to, which can be used to unregister its subscribers.
+     *
+     * @return The {@link EventManager} of the stream.
+     */
+    @NotNull
+    public EventManager getManager() {
+        return manager;
+    }
+}
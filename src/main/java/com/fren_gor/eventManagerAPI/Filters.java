@@ -0,0 +1,342 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.World;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.block.BlockEvent;
+import org.bukkit.event.entity.EntityEvent;
+import org.bukkit.event.hanging.HangingEvent;
+import org.bukkit.event.player.PlayerEvent;
+import org.bukkit.event.vehicle.VehicleEvent;
+import org.bukkit.event.world.WorldEvent;
+import org.bukkit.permissions.Permissible;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Common {@link EventFilter}s.
+ * <p>The returned filters are immutable and are equal when they check the same conditions, so consumers registered
+ * with them are grouped even if they are created separately. For example, two consumers registered with
+ * {@code Filters.world("arena1").and(Filters.notCancelled())} share a single check per event.
+ */
+public final class Filters {
+
+    private static final EventFilter<Event> NOT_CANCELLED = new NotCancelled();
+
+    /**
+     * Creates a filter which passes iff the event happens in the provided world.
+     * <p>The world is looked up for world, player, entity, block, vehicle and hanging events. Every other event doesn't pass.
+     *
+     * @param world The name of the world.
+     * @return A filter checking the world of the event.
+     * @throws IllegalArgumentException If world is null.
+     */
+    @NotNull
+    public static EventFilter<Event> world(@NotNull String world) throws IllegalArgumentException {
+        Preconditions.checkNotNull(world, "World cannot be null.");
+        return new InWorld(world);
+    }
+
+    /**
+     * Creates a filter which passes iff the player or entity of the event has the provided permission.
+     * <p>The permission is checked for player and entity events. Every other event doesn't pass.
+     *
+     * @param permission The permission.
+     * @return A filter checking the permission.
+     * @throws IllegalArgumentException If permission is null.
+     */
+    @NotNull
+    public static EventFilter<Event> permission(@NotNull String permission) throws IllegalArgumentException {
+        Preconditions.checkNotNull(permission, "Permission cannot be null.");
+        return new HasPermission(permission);
+    }
+
+    /**
+     * Returns a filter which passes iff the event is not cancelled.
+     * <p>Events which aren't {@link Cancellable} always pass.
+     *
+     * @return A filter checking whether the event is cancelled.
+     */
+    @NotNull
+    public static EventFilter<Event> notCancelled() {
+        return NOT_CANCELLED;
+    }
+
+    /**
+     * @param first The first filter.
+     * @param second The second filter.
+     * @param <E> The type of the event.
+     * @return A filter which passes iff both the provided filters pass.
+     * @throws IllegalArgumentException If any filter is null.
+     */
+    @NotNull
+    public static <E extends Event> EventFilter<E> and(@NotNull EventFilter<? super E> first, @NotNull EventFilter<? super E> second) throws IllegalArgumentException {
+        return Composite.of(true, first, second);
+    }
+
+    /**
+     * @param first The first filter.
+     * @param second The second filter.
+     * @param <E> The type of the event.
+     * @return A filter which passes iff either of the provided filters passes.
+     * @throws IllegalArgumentException If any filter is null.
+     */
+    @NotNull
+    public static <E extends Event> EventFilter<E> or(@NotNull EventFilter<? super E> first, @NotNull EventFilter<? super E> second) throws IllegalArgumentException {
+        return Composite.of(false, first, second);
+    }
+
+    /**
+     * @param filter The filter.
+     * @param <E> The type of the event.
+     * @return A filter which passes iff the provided one doesn't.
+     * @throws IllegalArgumentException If filter is null.
+     */
+    @NotNull
+    public static <E extends Event> EventFilter<E> not(@NotNull EventFilter<E> filter) throws IllegalArgumentException {
+        Preconditions.checkNotNull(filter, "Filter cannot be null.");
+        if (filter instanceof Not) {
+            return ((Not<E>) filter).filter;
+        }
+        return new Not<>(filter);
+    }
+
+    /**
+     * Returns whether a filter checks something consumers can change, so that its result cannot be reused after a consumer has been called.
+     */
+    static boolean isStateful(@NotNull EventFilter<?> filter) {
+        if (filter instanceof NotCancelled) {
+            return true;
+        }
+        if (filter instanceof Not) {
+            return isStateful(((Not<?>) filter).filter);
+        }
+        if (filter instanceof Composite) {
+            for (EventFilter<?> f : ((Composite<?>) filter).filters) {
+                if (isStateful(f))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static World worldOf(@NotNull Event event) {
+        if (event instanceof WorldEvent)
+            return ((WorldEvent) event).getWorld();
+        if (event instanceof PlayerEvent)
+            return ((PlayerEvent) event).getPlayer().getWorld();
+        if (event instanceof EntityEvent)
+            return ((EntityEvent) event).getEntity().getWorld();
+        if (event instanceof BlockEvent)
+            return ((BlockEvent) event).getBlock().getWorld();
+        if (event instanceof VehicleEvent)
+            return ((VehicleEvent) event).getVehicle().getWorld();
+        if (event instanceof HangingEvent)
+            return ((HangingEvent) event).getEntity().getWorld();
+        return null;
+    }
+
+    @Nullable
+    private static Permissible permissibleOf(@NotNull Event event) {
+        if (event instanceof PlayerEvent)
+            return ((PlayerEvent) event).getPlayer();
+        if (event instanceof EntityEvent)
+            return ((EntityEvent) event).getEntity();
+        return null;
+    }
+
+    private static final class InWorld implements EventFilter<Event> {
+
+        private final String world;
+
+        InWorld(@NotNull String world) {
+            this.world = world;
+        }
+
+        @Override
+        public boolean test(@NotNull Event event) {
+            World w = worldOf(event);
+            return w != null && world.equals(w.getName());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof InWorld && world.equals(((InWorld) o).world);
+        }
+
+        @Override
+        public int hashCode() {
+            return world.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "world(" + world + ')';
+        }
+    }
+
+    private static final class HasPermission implements EventFilter<Event> {
+
+        private final String permission;
+
+        HasPermission(@NotNull String permission) {
+            this.permission = permission;
+        }
+
+        @Override
+        public boolean test(@NotNull Event event) {
+            Permissible p = permissibleOf(event);
+            return p != null && p.hasPermission(permission);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof HasPermission && permission.equals(((HasPermission) o).permission);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * permission.hashCode() + 1;
+        }
+
+        @Override
+        public String toString() {
+            return "permission(" + permission + ')';
+        }
+    }
+
+    private static final class NotCancelled implements EventFilter<Event> {
+
+        @Override
+        public boolean test(@NotNull Event event) {
+            return !(event instanceof Cancellable) || !((Cancellable) event).isCancelled();
+        }
+
+        @Override
+        public String toString() {
+            return "notCancelled()";
+        }
+    }
+
+    private static final class Not<E extends Event> implements EventFilter<E> {
+
+        private final EventFilter<E> filter;
+
+        Not(@NotNull EventFilter<E> filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean test(@NotNull E event) {
+            return !filter.test(event);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Not && filter.equals(((Not<?>) o).filter);
+        }
+
+        @Override
+        public int hashCode() {
+            return ~filter.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "not(" + filter + ')';
+        }
+    }
+
+    private static final class Composite<E extends Event> implements EventFilter<E> {
+
+        private final boolean and;
+        private final List<EventFilter<? super E>> filters;
+
+        private Composite(boolean and, @NotNull List<EventFilter<? super E>> filters) {
+            this.and = and;
+            this.filters = filters;
+        }
+
+        static <E extends Event> EventFilter<E> of(boolean and, @NotNull EventFilter<? super E> first, @NotNull EventFilter<? super E> second) {
+            Preconditions.checkNotNull(first, "Filter cannot be null.");
+            Preconditions.checkNotNull(second, "Filter cannot be null.");
+            // Flatten nested compositions, so that equal conditions produce equal filters however they are chained
+            List<EventFilter<? super E>> list = new ArrayList<>();
+            flatten(and, first, list);
+            flatten(and, second, list);
+            return new Composite<>(and, list);
+        }
+
+        private static <E extends Event> void flatten(boolean and, @NotNull EventFilter<? super E> filter, @NotNull List<EventFilter<? super E>> list) {
+            if (filter instanceof Composite && ((Composite<? super E>) filter).and == and) {
+                list.addAll(((Composite<? super E>) filter).filters);
+            } else {
+                list.add(filter);
+            }
+        }
+
+        @Override
+        public boolean test(@NotNull E event) {
+            // Indexed, so that no iterator is allocated per event
+            for (int i = 0; i < filters.size(); i++) {
+                if (filters.get(i).test(event) != and) {
+                    return !and;
+                }
+            }
+            return and;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Composite))
+                return false;
+            Composite<?> c = (Composite<?>) o;
+            return and == c.and && filters.equals(c.filters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(and, filters.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder b = new StringBuilder(and ? "and(" : "or(");
+            for (int i = 0; i < filters.size(); i++) {
+                if (i != 0)
+                    b.append(", ");
+                b.append(filters.get(i));
+            }
+            return b.append(')').toString();
+        }
+    }
+
+    private Filters() {
+    }
+}
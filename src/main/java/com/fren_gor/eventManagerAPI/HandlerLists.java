@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+
+/**
+ * Cache of the {@link HandlerList} of every event class, resolved the same way bukkit does when registering listeners:
+ * the first class from the event up to {@link Event} (excluded) which declares a static {@code getHandlerList()} method.
+ */
+final class HandlerLists {
+
+    private static final ClassValue<Optional<HandlerList>> CACHE = new ClassValue<Optional<HandlerList>>() {
+        @Override
+        protected Optional<HandlerList> computeValue(Class<?> type) {
+            return Optional.ofNullable(resolve(type));
+        }
+    };
+
+    /**
+     * @param event The event's class.
+     * @return The {@link HandlerList} of the event, or null if it cannot be found.
+     */
+    @Nullable
+    static HandlerList of(@NotNull Class<? extends Event> event) {
+        return CACHE.get(event).orElse(null);
+    }
+
+    @Nullable
+    private static HandlerList resolve(@NotNull Class<?> type) {
+        for (Class<?> c = type; c != null && c != Event.class && Event.class.isAssignableFrom(c); c = c.getSuperclass()) {
+            Method m;
+            try {
+                m = c.getDeclaredMethod("getHandlerList");
+            } catch (NoSuchMethodException e) {
+                continue;
+            }
+            if (!Modifier.isStatic(m.getModifiers()) || !HandlerList.class.isAssignableFrom(m.getReturnType())) {
+                return null;
+            }
+            try {
+                m.setAccessible(true);
+                return (HandlerList) m.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private HandlerLists() {
+    }
+}
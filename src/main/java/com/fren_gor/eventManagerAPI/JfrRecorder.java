@@ -0,0 +1,226 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link Recorder} which emits JDK Flight Recorder events.
+ * <p>Events are allocated only while a recording which enables their type is running. The enabled types are looked up
+ * when a recording starts or stops, so settings changed on an already running recording are picked up at the next
+ * change of recording state. Which events are recorded and their thresholds
+ * can be configured in the JFR settings using the names of the events, for example:
+ * <pre>{@code
+ * jcmd <pid> JFR.start settings=profile +com.fren_gor.eventManagerAPI.SlowHandler#threshold=5ms
+ * }</pre>
+ */
+final class JfrRecorder extends Recorder {
+
+    private static final String CATEGORY = "EventManagerAPI";
+
+    private final EventType dispatchType, handlerType, registrationType;
+    private volatile boolean dispatchEnabled = false, handlerEnabled = false, registrationEnabled = false;
+
+    JfrRecorder() {
+        FlightRecorder.register(DispatchEvent.class);
+        FlightRecorder.register(SlowHandlerEvent.class);
+        FlightRecorder.register(RegistrationEvent.class);
+        dispatchType = EventType.getEventType(DispatchEvent.class);
+        handlerType = EventType.getEventType(SlowHandlerEvent.class);
+        registrationType = EventType.getEventType(RegistrationEvent.class);
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recorderInitialized(FlightRecorder recorder) {
+                update();
+            }
+
+            @Override
+            public void recordingStateChanged(Recording r) {
+                update();
+            }
+        });
+        update();
+    }
+
+    private void update() {
+        boolean running = false;
+        if (FlightRecorder.isInitialized()) {
+            for (Recording r : FlightRecorder.getFlightRecorder().getRecordings()) {
+                if (r.getState() == RecordingState.RUNNING) {
+                    running = true;
+                    break;
+                }
+            }
+        }
+        // EventType#isEnabled() is checked here rather than on every call, since it isn't cheap
+        dispatchEnabled = running && dispatchType.isEnabled();
+        handlerEnabled = running && handlerType.isEnabled();
+        registrationEnabled = running && registrationType.isEnabled();
+    }
+
+    @Override
+    @Nullable
+    Object beginDispatch() {
+        if (!dispatchEnabled) {
+            return null;
+        }
+        DispatchEvent e = new DispatchEvent();
+        e.begin();
+        return e;
+    }
+
+    @Override
+    void endDispatch(@Nullable Object token, @NotNull Class<? extends Event> event, @NotNull EventPriority priority, int handlers) {
+        if (token == null) {
+            return;
+        }
+        DispatchEvent e = (DispatchEvent) token;
+        e.end();
+        if (e.shouldCommit()) {
+            e.eventClass = event;
+            e.priority = priority.name();
+            e.handlers = handlers;
+            e.commit();
+        }
+    }
+
+    @Override
+    @Nullable
+    Object beginHandler() {
+        if (!handlerEnabled) {
+            return null;
+        }
+        SlowHandlerEvent e = new SlowHandlerEvent();
+        e.begin();
+        return e;
+    }
+
+    @Override
+    void endHandler(@Nullable Object token, @NotNull Class<? extends Event> event, @NotNull EventPriority priority, @NotNull Object listener) {
+        if (token == null) {
+            return;
+        }
+        SlowHandlerEvent e = (SlowHandlerEvent) token;
+        e.end();
+        if (e.shouldCommit()) {
+            e.eventClass = event;
+            e.priority = priority.name();
+            e.listenerClass = listener.getClass();
+            e.commit();
+        }
+    }
+
+    @Override
+    @Nullable
+    Object beginRegistration() {
+        if (!registrationEnabled) {
+            return null;
+        }
+        RegistrationEvent e = new RegistrationEvent();
+        e.begin();
+        return e;
+    }
+
+    @Override
+    void endRegistration(@Nullable Object token, @NotNull String operation, @Nullable Class<? extends Event> event, @Nullable EventPriority priority, @Nullable Object listener) {
+        if (token == null) {
+            return;
+        }
+        RegistrationEvent e = (RegistrationEvent) token;
+        e.end();
+        if (e.shouldCommit()) {
+            e.operation = operation;
+            e.eventClass = event;
+            e.priority = priority == null ? null : priority.name();
+            e.listenerClass = listener == null ? null : listener.getClass();
+            e.commit();
+        }
+    }
+
+    @Name("com.fren_gor.eventManagerAPI.Dispatch")
+    @Label("Event Dispatch")
+    @Description("An event has been dispatched to the consumers registered with a priority")
+    @Category(CATEGORY)
+    @Threshold("1 ms")
+    @StackTrace(false)
+    static final class DispatchEvent extends jdk.jfr.Event {
+
+        @Label("Event Class")
+        Class<?> eventClass;
+
+        @Label("Priority")
+        String priority;
+
+        @Label("Handlers")
+        int handlers;
+
+    }
+
+    @Name("com.fren_gor.eventManagerAPI.SlowHandler")
+    @Label("Slow Event Handler")
+    @Description("A consumer took long to handle an event")
+    @Category(CATEGORY)
+    @Threshold("10 ms")
+    static final class SlowHandlerEvent extends jdk.jfr.Event {
+
+        @Label("Event Class")
+        Class<?> eventClass;
+
+        @Label("Priority")
+        String priority;
+
+        @Label("Listener Class")
+        Class<?> listenerClass;
+
+    }
+
+    @Name("com.fren_gor.eventManagerAPI.Registration")
+    @Label("Event Registration")
+    @Description("Consumers have been registered or unregistered")
+    @Category(CATEGORY)
+    @Threshold("0 ms")
+    static final class RegistrationEvent extends jdk.jfr.Event {
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Event Class")
+        Class<?> eventClass;
+
+        @Label("Priority")
+        String priority;
+
+        @Label("Listener Class")
+        Class<?> listenerClass;
+
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Registers the methods of a listener class annotated with {@link Subscribe}.
+ * <p>Implementations are generated at compile time by the {@code eventmanagerapi-processor} annotation processor
+ * and are named after the listener class, followed by {@code _EventRegistrar}. For example, the registrar
+ * of {@code com.example.Outer.MyListener} is {@code com.example.Outer_MyListener_EventRegistrar}.
+ * <p>When a registrar exists, {@link EventManager#registerAll(Object)} and {@link EventManager.Scope#registerAll(Object)}
+ * use it instead of scanning the listener class.
+ * Generated registrars also provide a static {@code register(EventRegistry, T)} method, which can be called directly.
+ *
+ * @param <T> The type of the listener.
+ */
+public interface ListenerRegistrar<T> {
+
+    /**
+     * The suffix of the names of the generated registrars.
+     */
+    String SUFFIX = "_EventRegistrar";
+
+    /**
+     * Registers every method of the listener annotated with {@link Subscribe}.
+     *
+     * @param registry The {@link EventManager} or {@link EventManager.Scope} used to register the methods.
+     * @param listener The listener.
+     */
+    void registerAll(@NotNull EventRegistry registry, @NotNull T listener);
+
+}
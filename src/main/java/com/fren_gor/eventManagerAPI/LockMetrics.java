@@ -0,0 +1,159 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Snapshot of the lock counters of an event.
+ * <p>Read locks are acquired when an event is called, write locks when listeners are registered or unregistered.
+ * Counters are cumulative since the event was first registered, so two snapshots can be subtracted
+ * using {@link #minus(LockMetrics)} to get the values of a time window.
+ *
+ * @see EventManager#getLockMetrics(Class)
+ */
+public final class LockMetrics {
+
+    /**
+     * A {@link LockMetrics} with every counter set to zero.
+     */
+    public static final LockMetrics EMPTY = new LockMetrics(0, 0, 0, 0, 0, 0, 0, 0);
+
+    private final long readAcquisitions, contendedReads, readWaitNanos, readHoldNanos;
+    private final long writeAcquisitions, contendedWrites, writeWaitNanos, writeHoldNanos;
+
+    LockMetrics(long readAcquisitions, long contendedReads, long readWaitNanos, long readHoldNanos, long writeAcquisitions, long contendedWrites, long writeWaitNanos, long writeHoldNanos) {
+        this.readAcquisitions = readAcquisitions;
+        this.contendedReads = contendedReads;
+        this.readWaitNanos = readWaitNanos;
+        this.readHoldNanos = readHoldNanos;
+        this.writeAcquisitions = writeAcquisitions;
+        this.contendedWrites = contendedWrites;
+        this.writeWaitNanos = writeWaitNanos;
+        this.writeHoldNanos = writeHoldNanos;
+    }
+
+    /**
+     * @return How many times the read lock has been acquired.
+     */
+    public long getReadAcquisitions() {
+        return readAcquisitions;
+    }
+
+    /**
+     * @return How many read lock acquisitions had to wait for the lock to be released.
+     */
+    public long getContendedReads() {
+        return contendedReads;
+    }
+
+    /**
+     * @return The total time, in nanoseconds, spent waiting to acquire the read lock.
+     */
+    public long getReadWaitNanos() {
+        return readWaitNanos;
+    }
+
+    /**
+     * @return The total time, in nanoseconds, the read lock has been held.
+     */
+    public long getReadHoldNanos() {
+        return readHoldNanos;
+    }
+
+    /**
+     * @return How many times the write lock has been acquired.
+     */
+    public long getWriteAcquisitions() {
+        return writeAcquisitions;
+    }
+
+    /**
+     * @return How many write lock acquisitions had to wait for the lock to be released.
+     */
+    public long getContendedWrites() {
+        return contendedWrites;
+    }
+
+    /**
+     * @return The total time, in nanoseconds, spent waiting to acquire the write lock.
+     */
+    public long getWriteWaitNanos() {
+        return writeWaitNanos;
+    }
+
+    /**
+     * @return The total time, in nanoseconds, the write lock has been held.
+     */
+    public long getWriteHoldNanos() {
+        return writeHoldNanos;
+    }
+
+    /**
+     * Sums the counters of two snapshots.
+     *
+     * @param other The other snapshot.
+     * @return A new {@link LockMetrics} containing the sum of the counters.
+     */
+    @NotNull
+    public LockMetrics plus(@NotNull LockMetrics other) {
+        return new LockMetrics(readAcquisitions + other.readAcquisitions, contendedReads + other.contendedReads, readWaitNanos + other.readWaitNanos, readHoldNanos + other.readHoldNanos,
+                writeAcquisitions + other.writeAcquisitions, contendedWrites + other.contendedWrites, writeWaitNanos + other.writeWaitNanos, writeHoldNanos + other.writeHoldNanos);
+    }
+
+    /**
+     * Subtracts the counters of an older snapshot from this one.
+     *
+     * @param older The older snapshot.
+     * @return A new {@link LockMetrics} containing the difference of the counters.
+     */
+    @NotNull
+    public LockMetrics minus(@NotNull LockMetrics older) {
+        return new LockMetrics(readAcquisitions - older.readAcquisitions, contendedReads - older.contendedReads, readWaitNanos - older.readWaitNanos, readHoldNanos - older.readHoldNanos,
+                writeAcquisitions - older.writeAcquisitions, contendedWrites - older.contendedWrites, writeWaitNanos - older.writeWaitNanos, writeHoldNanos - older.writeHoldNanos);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LockMetrics that = (LockMetrics) o;
+        return readAcquisitions == that.readAcquisitions && contendedReads == that.contendedReads && readWaitNanos == that.readWaitNanos && readHoldNanos == that.readHoldNanos &&
+                writeAcquisitions == that.writeAcquisitions && contendedWrites == that.contendedWrites && writeWaitNanos == that.writeWaitNanos && writeHoldNanos == that.writeHoldNanos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(readAcquisitions, contendedReads, readWaitNanos, readHoldNanos, writeAcquisitions, contendedWrites, writeWaitNanos, writeHoldNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "LockMetrics{" +
+                "readAcquisitions=" + readAcquisitions +
+                ", contendedReads=" + contendedReads +
+                ", readWaitNanos=" + readWaitNanos +
+                ", readHoldNanos=" + readHoldNanos +
+                ", writeAcquisitions=" + writeAcquisitions +
+                ", contendedWrites=" + contendedWrites +
+                ", writeWaitNanos=" + writeWaitNanos +
+                ", writeHoldNanos=" + writeHoldNanos +
+                '}';
+    }
+}
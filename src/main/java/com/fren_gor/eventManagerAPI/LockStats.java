@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Lock counters of a single {@code EventListener}.
+ * <p>Counters are {@link LongAdder}s, so recording never contends between threads.
+ * Waiting time is measured only when the lock cannot be acquired immediately.
+ */
+final class LockStats {
+
+    private final LongAdder readAcquisitions = new LongAdder();
+    private final LongAdder contendedReads = new LongAdder();
+    private final LongAdder readWaitNanos = new LongAdder();
+    private final LongAdder readHoldNanos = new LongAdder();
+    private final LongAdder writeAcquisitions = new LongAdder();
+    private final LongAdder contendedWrites = new LongAdder();
+    private final LongAdder writeWaitNanos = new LongAdder();
+    private final LongAdder writeHoldNanos = new LongAdder();
+
+    /**
+     * Acquires the read lock.
+     *
+     * @return The time of acquisition, to be passed to {@link #unlockRead(Lock, long)}.
+     */
+    public long lockRead(@NotNull Lock lock) {
+        readAcquisitions.increment();
+        return lock(lock, contendedReads, readWaitNanos);
+    }
+
+    public void unlockRead(@NotNull Lock lock, long acquired) {
+        readHoldNanos.add(System.nanoTime() - acquired);
+        lock.unlock();
+    }
+
+    /**
+     * Acquires the write lock.
+     *
+     * @return The time of acquisition, to be passed to {@link #unlockWrite(Lock, long)}.
+     */
+    public long lockWrite(@NotNull Lock lock) {
+        writeAcquisitions.increment();
+        return lock(lock, contendedWrites, writeWaitNanos);
+    }
+
+    public void unlockWrite(@NotNull Lock lock, long acquired) {
+        writeHoldNanos.add(System.nanoTime() - acquired);
+        lock.unlock();
+    }
+
+    private static long lock(@NotNull Lock lock, @NotNull LongAdder contended, @NotNull LongAdder wait) {
+        if (lock.tryLock()) {
+            return System.nanoTime();
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        long acquired = System.nanoTime();
+        contended.increment();
+        wait.add(acquired - start);
+        return acquired;
+    }
+
+    @NotNull
+    public LockMetrics snapshot() {
+        return new LockMetrics(readAcquisitions.sum(), contendedReads.sum(), readWaitNanos.sum(), readHoldNanos.sum(),
+                writeAcquisitions.sum(), contendedWrites.sum(), writeWaitNanos.sum(), writeHoldNanos.sum());
+    }
+
+}
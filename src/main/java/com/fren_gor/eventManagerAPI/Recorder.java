@@ -0,0 +1,73 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Hooks used to emit JDK Flight Recorder events.
+ * <p>This class doesn't do anything. When JFR is available, {@link #INSTANCE} is a {@code JfrRecorder},
+ * which is loaded by reflection so that this class can also be used on JVMs without JFR.
+ * <p>Methods starting with {@code begin} return a token, which is null when nothing is being recorded
+ * and must be passed to the corresponding {@code end} method.
+ */
+class Recorder {
+
+    static final Recorder INSTANCE = create();
+
+    @NotNull
+    private static Recorder create() {
+        try {
+            Class.forName("jdk.jfr.Event", false, Recorder.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return new Recorder();
+        }
+        try {
+            return (Recorder) Class.forName("com.fren_gor.eventManagerAPI.JfrRecorder").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return new Recorder();
+        }
+    }
+
+    @Nullable
+    Object beginDispatch() {
+        return null;
+    }
+
+    void endDispatch(@Nullable Object token, @NotNull Class<? extends Event> event, @NotNull EventPriority priority, int handlers) {
+    }
+
+    @Nullable
+    Object beginHandler() {
+        return null;
+    }
+
+    void endHandler(@Nullable Object token, @NotNull Class<? extends Event> event, @NotNull EventPriority priority, @NotNull Object listener) {
+    }
+
+    @Nullable
+    Object beginRegistration() {
+        return null;
+    }
+
+    void endRegistration(@Nullable Object token, @NotNull String operation, @Nullable Class<? extends Event> event, @Nullable EventPriority priority, @Nullable Object listener) {
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.util.BoundingBox;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An axis-aligned box in a world.
+ * <p>Like {@link BoundingBox#contains(double, double, double)}, the minimum corner is included in the region while the maximum one is not.
+ * <p>Instances of this class are immutable.
+ *
+ * @see EventManager#register(Object, Class, org.bukkit.event.EventPriority, Region, java.util.function.Function, java.util.function.Consumer)
+ */
+public final class Region {
+
+    private final String world;
+    private final double minX, minY, minZ, maxX, maxY, maxZ;
+
+    private Region(@NotNull String world, @NotNull BoundingBox box) {
+        this.world = world;
+        this.minX = box.getMinX();
+        this.minY = box.getMinY();
+        this.minZ = box.getMinZ();
+        this.maxX = box.getMaxX();
+        this.maxY = box.getMaxY();
+        this.maxZ = box.getMaxZ();
+    }
+
+    /**
+     * @param world The name of the world.
+     * @param box The box.
+     * @return A new {@link Region}.
+     * @throws IllegalArgumentException If any argument is null.
+     */
+    @NotNull
+    public static Region of(@NotNull String world, @NotNull BoundingBox box) throws IllegalArgumentException {
+        Preconditions.checkNotNull(world, "World cannot be null.");
+        Preconditions.checkNotNull(box, "BoundingBox cannot be null.");
+        return new Region(world, box);
+    }
+
+    /**
+     * @param world The world.
+     * @param box The box.
+     * @return A new {@link Region}.
+     * @throws IllegalArgumentException If any argument is null.
+     */
+    @NotNull
+    public static Region of(@NotNull World world, @NotNull BoundingBox box) throws IllegalArgumentException {
+        Preconditions.checkNotNull(world, "World cannot be null.");
+        return of(world.getName(), box);
+    }
+
+    /**
+     * @return The name of the world of the region.
+     */
+    @NotNull
+    public String getWorld() {
+        return world;
+    }
+
+    /**
+     * @return A copy of the box of the region.
+     */
+    @NotNull
+    public BoundingBox getBox() {
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * @param location The location.
+     * @return Whether the location is inside this region.
+     */
+    public boolean contains(@NotNull Location location) {
+        World w = location.getWorld();
+        return w != null && world.equals(w.getName()) && contains(location.getX(), location.getY(), location.getZ());
+    }
+
+    /**
+     * Checks only the coordinates, without checking the world.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param z The z coordinate.
+     * @return Whether the coordinates are inside the box of this region.
+     */
+    public boolean contains(double x, double y, double z) {
+        return x >= minX && x < maxX && y >= minY && y < maxY && z >= minZ && z < maxZ;
+    }
+
+    // Chunk coordinates of the blocks in the region
+    int getMinChunkX() {
+        return (int) Math.floor(minX) >> 4;
+    }
+
+    int getMinChunkZ() {
+        return (int) Math.floor(minZ) >> 4;
+    }
+
+    int getMaxChunkX() {
+        return (int) Math.floor(maxX) >> 4;
+    }
+
+    int getMaxChunkZ() {
+        return (int) Math.floor(maxZ) >> 4;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof Region))
+            return false;
+        Region r = (Region) o;
+        return world.equals(r.world) && Double.compare(r.minX, minX) == 0 && Double.compare(r.minY, minY) == 0 && Double.compare(r.minZ, minZ) == 0
+                && Double.compare(r.maxX, maxX) == 0 && Double.compare(r.maxY, maxY) == 0 && Double.compare(r.maxZ, maxZ) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = world.hashCode();
+        result = 31 * result + Double.hashCode(minX);
+        result = 31 * result + Double.hashCode(minY);
+        result = 31 * result + Double.hashCode(minZ);
+        result = 31 * result + Double.hashCode(maxX);
+        result = 31 * result + Double.hashCode(maxY);
+        result = 31 * result + Double.hashCode(maxZ);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Region{" +
+                "world='" + world + '\'' +
+                ", min=(" + minX + ", " + minY + ", " + minZ + ")" +
+                ", max=(" + maxX + ", " + maxY + ", " + maxZ + ")" +
+                '}';
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Immutable chunk grid of {@link Region}s, used to find the regions containing a location without checking all of them.
+ * <p>Every region is put in the cells of the chunks it overlaps. Regions overlapping more than {@link #MAX_CHUNKS} chunks
+ * are instead checked for every location of their world, to keep the grid small.
+ *
+ * @param <T> The type of the values associated to the regions.
+ */
+final class RegionIndex<T> {
+
+    static final int MAX_CHUNKS = 256;
+    private static final Object[] EMPTY = new Object[0];
+
+    private final Map<String, WorldIndex> worlds;
+
+    private RegionIndex(@NotNull Map<String, WorldIndex> worlds) {
+        this.worlds = worlds;
+    }
+
+    /**
+     * @param world The name of the world.
+     * @return The index of the regions of the world, or null if the world doesn't have any.
+     */
+    @Nullable
+    WorldIndex world(@NotNull String world) {
+        return worlds.get(world);
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) ^ (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int slot(long key, int mask) {
+        // Spreads the coordinates of both axes on the low bits
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * The returned arrays contain {@link Region}s at even indexes and their values at odd ones.
+     * Candidates must still be checked using {@link Region#contains(double, double, double)}.
+     * <p>Cells are stored in an open addressing table keyed by the chunk coordinates, so looking up a chunk doesn't box its key.
+     */
+    static final class WorldIndex {
+
+        // A cell is empty if its value is null. Keys are probed linearly
+        private final long[] keys;
+        private final Object[][] values;
+        private final int mask;
+        private final Object[] large;
+
+        WorldIndex(@NotNull Map<Long, List<Object>> chunks, @NotNull Object[] large) {
+            // Kept at most half full, so that probes stay short
+            int capacity = Integer.highestOneBit(Math.max(chunks.size(), 1)) << 2;
+            this.keys = new long[capacity];
+            this.values = new Object[capacity][];
+            this.mask = capacity - 1;
+            for (Entry<Long, List<Object>> cell : chunks.entrySet()) {
+                long key = cell.getKey();
+                int i = slot(key, mask);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = cell.getValue().toArray();
+            }
+            this.large = large;
+        }
+
+        /**
+         * @param x The x coordinate.
+         * @param z The z coordinate.
+         * @return The regions overlapping the chunk of the coordinates, except for the large ones.
+         */
+        @NotNull
+        Object[] chunk(double x, double z) {
+            long key = chunkKey((int) Math.floor(x) >> 4, (int) Math.floor(z) >> 4);
+            Object[] chunk;
+            for (int i = slot(key, mask); (chunk = values[i]) != null; i = (i + 1) & mask) {
+                if (keys[i] == key)
+                    return chunk;
+            }
+            return EMPTY;
+        }
+
+        /**
+         * @return The regions overlapping too many chunks to be put in the grid.
+         */
+        @NotNull
+        Object[] large() {
+            return large;
+        }
+    }
+
+    static final class Builder<T> {
+
+        private final Map<String, Map<Long, List<Object>>> chunks = new HashMap<>();
+        private final Map<String, List<Object>> large = new HashMap<>();
+
+        void add(@NotNull Region region, @NotNull T value) {
+            long sizeX = (long) region.getMaxChunkX() - region.getMinChunkX() + 1;
+            long sizeZ = (long) region.getMaxChunkZ() - region.getMinChunkZ() + 1;
+            if (sizeX * sizeZ > MAX_CHUNKS) {
+                List<Object> l = large.computeIfAbsent(region.getWorld(), k -> new ArrayList<>());
+                l.add(region);
+                l.add(value);
+                return;
+            }
+            Map<Long, List<Object>> world = chunks.computeIfAbsent(region.getWorld(), k -> new HashMap<>());
+            for (int x = region.getMinChunkX(); x <= region.getMaxChunkX(); x++) {
+                for (int z = region.getMinChunkZ(); z <= region.getMaxChunkZ(); z++) {
+                    List<Object> l = world.computeIfAbsent(chunkKey(x, z), k -> new ArrayList<>());
+                    l.add(region);
+                    l.add(value);
+                }
+            }
+        }
+
+        @NotNull
+        RegionIndex<T> build() {
+            Map<String, WorldIndex> worlds = new HashMap<>();
+            for (Entry<String, Map<Long, List<Object>>> world : chunks.entrySet()) {
+                List<Object> l = large.remove(world.getKey());
+                worlds.put(world.getKey(), new WorldIndex(world.getValue(), l == null ? EMPTY : l.toArray()));
+            }
+            for (Entry<String, List<Object>> world : large.entrySet()) {
+                worlds.put(world.getKey(), new WorldIndex(Collections.emptyMap(), world.getValue().toArray()));
+            }
+            return new RegionIndex<>(worlds);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import org.bukkit.event.EventPriority;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method of a listener as a consumer of the event declared as its only parameter.
+ * <p>Annotated methods are registered using {@link EventManager#registerAll(Object)}.
+ * They must not be static and must have exactly one parameter, which type is the event to listen to.
+ * <pre>{@code
+ * public class MyListener {
+ *     @Subscribe(priority = EventPriority.HIGH)
+ *     public void onJoin(PlayerJoinEvent event) {
+ *         ...
+ *     }
+ * }
+ * }</pre>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Subscribe {
+
+    /**
+     * @return The priority of the event.
+     */
+    EventPriority priority() default EventPriority.NORMAL;
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The methods annotated with {@link Subscribe} of a listener class.
+ * <p>Classes are scanned only once and every method is bound to a factory of {@link Consumer}s,
+ * so registering a listener doesn't use reflection and calling an event doesn't use {@link Method#invoke(Object, Object...)}.
+ * <p>Classes which have a {@link ListenerRegistrar} generated at compile time are not scanned by {@link EventManager#registerAll(Object)}.
+ */
+final class SubscriberMethods {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType CONSUMER_ACCEPT = MethodType.methodType(void.class, Object.class);
+    private static final MethodType INVOKER = MethodType.methodType(void.class, Object.class, Event.class);
+
+    private static final ClassValue<SubscriberMethods> CACHE = new ClassValue<SubscriberMethods>() {
+        @Override
+        protected SubscriberMethods computeValue(Class<?> type) {
+            return new SubscriberMethods(type);
+        }
+    };
+
+    private static final ClassValue<Optional<ListenerRegistrar<Object>>> REGISTRARS = new ClassValue<Optional<ListenerRegistrar<Object>>>() {
+        @Override
+        protected Optional<ListenerRegistrar<Object>> computeValue(Class<?> type) {
+            return Optional.ofNullable(loadRegistrar(type));
+        }
+    };
+
+    private final List<Subscription> subscriptions;
+
+    private SubscriberMethods(@NotNull Class<?> type) {
+        List<Subscription> list = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method m : c.getDeclaredMethods()) {
+                if (m.isBridge() || m.isSynthetic()) {
+                    continue;
+                }
+                // Skip methods overridden by a subclass
+                if (!Modifier.isPrivate(m.getModifiers()) && !seen.add(m.getName() + Arrays.toString(m.getParameterTypes()))) {
+                    continue;
+                }
+                Subscribe subscribe = m.getAnnotation(Subscribe.class);
+                if (subscribe != null) {
+                    list.add(new Subscription(m, subscribe.priority()));
+                }
+            }
+        }
+        this.subscriptions = Collections.unmodifiableList(list);
+    }
+
+    @NotNull
+    public static SubscriberMethods of(@NotNull Class<?> type) throws IllegalArgumentException {
+        return CACHE.get(type);
+    }
+
+    /**
+     * Gets the registrar generated at compile time for the provided class, if any.
+     *
+     * @param type The listener class.
+     * @return The generated {@link ListenerRegistrar}, or null if the class doesn't have one.
+     */
+    @Nullable
+    public static ListenerRegistrar<Object> registrarOf(@NotNull Class<?> type) {
+        return REGISTRARS.get(type).orElse(null);
+    }
+
+    @NotNull
+    public List<Subscription> getSubscriptions() {
+        return subscriptions;
+    }
+
+    @Nullable
+    private static ListenerRegistrar<Object> loadRegistrar(@NotNull Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        if (loader == null || type.isAnonymousClass() || type.isLocalClass() || type.isArray()) {
+            return null;
+        }
+        String name = type.getName();
+        int dot = name.lastIndexOf('.');
+        String registrarName = name.substring(0, dot + 1) + name.substring(dot + 1).replace('$', '_') + ListenerRegistrar.SUFFIX;
+        try {
+            Class<?> registrar = Class.forName(registrarName, true, loader);
+            if (!ListenerRegistrar.class.isAssignableFrom(registrar)) {
+                return null;
+            }
+            return (ListenerRegistrar<Object>) registrar.getConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            System.err.println("Couldn't load " + registrarName + ", falling back to reflection:");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    static final class Subscription {
+
+        private final Class<? extends Event> event;
+        private final EventPriority priority;
+        private final Function<Object, Consumer<Event>> factory;
+
+        private Subscription(@NotNull Method method, @NotNull EventPriority priority) throws IllegalArgumentException {
+            String name = method.getDeclaringClass().getName() + '#' + method.getName();
+            if (Modifier.isStatic(method.getModifiers()))
+                throw new IllegalArgumentException("Method " + name + " annotated with @Subscribe cannot be static.");
+            if (method.getParameterCount() != 1 || !Event.class.isAssignableFrom(method.getParameterTypes()[0]))
+                throw new IllegalArgumentException("Method " + name + " annotated with @Subscribe must have an event as its only parameter.");
+            this.event = method.getParameterTypes()[0].asSubclass(Event.class);
+            this.priority = priority;
+            this.factory = bind(method, name);
+        }
+
+        @NotNull
+        public Class<? extends Event> getEvent() {
+            return event;
+        }
+
+        @NotNull
+        public EventPriority getPriority() {
+            return priority;
+        }
+
+        @NotNull
+        public Consumer<Event> bind(@NotNull Object listener) {
+            return factory.apply(listener);
+        }
+
+        @NotNull
+        private static Function<Object, Consumer<Event>> bind(@NotNull Method method, @NotNull String name) throws IllegalArgumentException {
+            Class<?> owner = method.getDeclaringClass();
+            Class<?> param = method.getParameterTypes()[0];
+            if (Modifier.isPublic(method.getModifiers()) && isPublic(owner) && isVisible(owner) && isVisible(param)) {
+                try {
+                    CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(Consumer.class, owner), CONSUMER_ACCEPT,
+                            LOOKUP.unreflect(method), MethodType.methodType(void.class, param));
+                    MethodHandle factory = site.getTarget().asType(MethodType.methodType(Consumer.class, Object.class));
+                    return listener -> {
+                        try {
+                            return (Consumer<Event>) factory.invokeExact(listener);
+                        } catch (RuntimeException | Error e) {
+                            throw e;
+                        } catch (Throwable t) {
+                            throw new RuntimeException(t);
+                        }
+                    };
+                } catch (Throwable ignored) {
+                    // Fallback to method handles
+                }
+            }
+            MethodHandle handle;
+            try {
+                method.setAccessible(true);
+                handle = LOOKUP.unreflect(method).asType(INVOKER);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalArgumentException("Cannot access method " + name + " annotated with @Subscribe.", e);
+            }
+            return listener -> event -> {
+                try {
+                    handle.invokeExact(listener, event);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new RuntimeException(t);
+                }
+            };
+        }
+
+        private static boolean isPublic(@NotNull Class<?> clazz) {
+            for (Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+                if (!Modifier.isPublic(c.getModifiers())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isVisible(@NotNull Class<?> clazz) {
+            // The generated lambda class can only link against classes visible from our class loader
+            try {
+                return Class.forName(clazz.getName(), false, SubscriberMethods.class.getClassLoader()) == clazz;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hashed timing wheel of timeouts measured in ticks.
+ * <p>Timeouts are put in the slot of their deadline, so scheduling and cancelling them is O(1) and every
+ * {@link #advance()} visits only the timeouts of a single slot. Timeouts longer than the wheel stay in their slot
+ * for more rounds.
+ * <p>This class is thread-safe, every method synchronizes on the wheel.
+ */
+final class TimingWheel<T> {
+
+    private final Timeout<T>[] slots;
+    private final int mask;
+    private long tick = 0;
+    private int size = 0;
+
+    public TimingWheel(int slots) {
+        Preconditions.checkArgument(slots > 0 && (slots & (slots - 1)) == 0, "Slots must be a power of two.");
+        this.slots = new Timeout[slots];
+        this.mask = slots - 1;
+    }
+
+    /**
+     * Schedules a value to expire after the provided number of ticks.
+     *
+     * @return The timeout, which can be used to cancel the expiration.
+     */
+    @NotNull
+    public synchronized Timeout<T> schedule(@NotNull T value, long ticks) {
+        Preconditions.checkArgument(ticks > 0, "Ticks must be positive.");
+        // Saturated, so that huge timeouts never expire instead of expiring immediately
+        long deadline = ticks > Long.MAX_VALUE - tick ? Long.MAX_VALUE : tick + ticks;
+        Timeout<T> t = new Timeout<>(this, value, deadline);
+        int slot = (int) (t.deadline & mask);
+        t.slot = slot;
+        t.next = slots[slot];
+        if (t.next != null)
+            t.next.prev = t;
+        slots[slot] = t;
+        size++;
+        return t;
+    }
+
+    /**
+     * Advances the wheel by one tick.
+     *
+     * @return The values which expired in this tick.
+     */
+    @NotNull
+    public synchronized List<T> advance() {
+        tick++;
+        List<T> expired = null;
+        Timeout<T> t = slots[(int) (tick & mask)];
+        while (t != null) {
+            Timeout<T> next = t.next;
+            if (t.deadline <= tick) {
+                unlink(t);
+                if (expired == null)
+                    expired = new ArrayList<>();
+                expired.add(t.value);
+            }
+            t = next;
+        }
+        return expired == null ? Collections.emptyList() : expired;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Cancels every timeout.
+     */
+    public synchronized void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            while (slots[i] != null) {
+                unlink(slots[i]);
+            }
+        }
+    }
+
+    private void unlink(@NotNull Timeout<T> t) {
+        if (t.prev != null) {
+            t.prev.next = t.next;
+        } else {
+            slots[t.slot] = t.next;
+        }
+        if (t.next != null)
+            t.next.prev = t.prev;
+        t.prev = t.next = null;
+        t.slot = -1;
+        size--;
+    }
+
+    static final class Timeout<T> {
+
+        private final TimingWheel<T> wheel;
+        private final T value;
+        private final long deadline;
+        // Guarded by the wheel, -1 once expired or cancelled
+        private int slot;
+        private Timeout<T> prev, next;
+
+        private Timeout(@NotNull TimingWheel<T> wheel, @NotNull T value, long deadline) {
+            this.wheel = wheel;
+            this.value = Objects.requireNonNull(value, "Value is null.");
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timeout. Does nothing if it has already expired or has been cancelled.
+         */
+        public void cancel() {
+            synchronized (wheel) {
+                if (slot >= 0)
+                    wheel.unlink(this);
+            }
+        }
+    }
+}
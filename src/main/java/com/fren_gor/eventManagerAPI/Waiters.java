@@ -0,0 +1,229 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI;
+
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * One-shot consumers of an event and priority.
+ * <p>Waiters are kept apart from the other consumers, so they are added and removed without taking the lock of the event.
+ * A waiter is claimed atomically by the first event it accepts, so it is called at most once even when the event
+ * is called by many threads at the same time. Waiters with a key are indexed by it, so that an event only tests the
+ * waiters of its own key.
+ *
+ * @see EventManager#registerOnce(Object, Class, org.bukkit.event.EventPriority, Consumer)
+ * @see EventManager#await(Class, org.bukkit.event.EventPriority, EventFilter, long, java.util.concurrent.TimeUnit)
+ */
+final class Waiters<E extends Event> {
+
+    private final Class<E> clazz;
+    private final Set<Waiter<E>> unkeyed = ConcurrentHashMap.newKeySet();
+    // Key functions are removed with their last waiter. Both are updated inside compute, so that
+    // a waiter is never added to the values of a key function which is being removed
+    private final ConcurrentMap<Function<? super E, ?>, ConcurrentMap<Object, Set<Waiter<E>>>> keyed = new ConcurrentHashMap<>();
+    private volatile boolean closed = false;
+
+    public Waiters(@NotNull Class<E> clazz) {
+        this.clazz = Objects.requireNonNull(clazz, "Event class is null.");
+    }
+
+    /**
+     * Adds a waiter.
+     *
+     * @return Whether the waiter has been added, false if the waiters have been closed.
+     */
+    public boolean add(@NotNull Waiter<E> waiter) {
+        if (closed) {
+            return false;
+        }
+        if (waiter.key == null) {
+            unkeyed.add(waiter);
+        } else {
+            keyed.compute(waiter.key, (k, values) -> {
+                if (values == null)
+                    values = new ConcurrentHashMap<>();
+                values.compute(waiter.value, (v, set) -> {
+                    if (set == null)
+                        set = ConcurrentHashMap.newKeySet();
+                    set.add(waiter);
+                    return set;
+                });
+                return values;
+            });
+        }
+        // Checked again, since close() may not have seen the waiter
+        if (closed) {
+            remove(waiter);
+            return false;
+        }
+        return true;
+    }
+
+    public void remove(@NotNull Waiter<E> waiter) {
+        if (waiter.key == null) {
+            unkeyed.remove(waiter);
+            return;
+        }
+        keyed.computeIfPresent(waiter.key, (k, values) -> {
+            values.computeIfPresent(waiter.value, (v, set) -> set.remove(waiter) && set.isEmpty() ? null : set);
+            return values.isEmpty() ? null : values;
+        });
+    }
+
+    public void fire(@NotNull E event) {
+        if (!unkeyed.isEmpty()) {
+            for (Waiter<E> w : unkeyed) {
+                run(w, event);
+            }
+        }
+        if (!keyed.isEmpty()) {
+            for (Entry<Function<? super E, ?>, ConcurrentMap<Object, Set<Waiter<E>>>> e : keyed.entrySet()) {
+                if (e.getValue().isEmpty()) {
+                    continue;
+                }
+                Object value;
+                try {
+                    value = e.getKey().apply(event);
+                } catch (Throwable t) {
+                    System.err.println("Key of event " + clazz.getSimpleName() + " has thrown an error:");
+                    t.printStackTrace();
+                    continue;
+                }
+                Set<Waiter<E>> set = value == null ? null : e.getValue().get(value);
+                if (set != null) {
+                    for (Waiter<E> w : set) {
+                        run(w, event);
+                    }
+                }
+            }
+        }
+    }
+
+    private void run(@NotNull Waiter<E> w, @NotNull E event) {
+        if (w.filter != null) {
+            try {
+                if (!w.filter.test(event))
+                    return;
+            } catch (Throwable t) {
+                System.err.println("Filter " + w.filter + " of event " + clazz.getSimpleName() + " has thrown an error:");
+                t.printStackTrace();
+                return;
+            }
+        }
+        if (!w.claim()) {
+            return;
+        }
+        remove(w);
+        try {
+            w.consumer.accept(event);
+        } catch (Throwable t) {
+            Object instance = w.listener == null ? w.consumer : w.listener;
+            System.err.println("Event " + clazz.getSimpleName() + " in " + instance.getClass().getSimpleName() + " has thrown an error:");
+            t.printStackTrace();
+        }
+    }
+
+    /**
+     * Cancels every waiter whose listener matches the filter. Waiters without a listener are never matched.
+     */
+    public void cancelListeners(@NotNull Predicate<Object> filter) {
+        cancelIf(w -> w.listener != null && filter.test(w.listener));
+    }
+
+    public void cancelAll() {
+        cancelIf(w -> true);
+    }
+
+    public void close() {
+        closed = true;
+        cancelAll();
+    }
+
+    private void cancelIf(@NotNull Predicate<Waiter<E>> filter) {
+        for (Waiter<E> w : unkeyed) {
+            if (filter.test(w))
+                cancel(w);
+        }
+        for (ConcurrentMap<Object, Set<Waiter<E>>> values : keyed.values()) {
+            for (Set<Waiter<E>> set : values.values()) {
+                for (Waiter<E> w : set) {
+                    if (filter.test(w))
+                        cancel(w);
+                }
+            }
+        }
+    }
+
+    private void cancel(@NotNull Waiter<E> w) {
+        if (w.claim()) {
+            remove(w);
+            if (w.onCancel != null)
+                w.onCancel.run();
+        }
+    }
+
+    static final class Waiter<E extends Event> {
+
+        @Nullable
+        private final Object listener;
+        @Nullable
+        private final EventFilter<? super E> filter;
+        @Nullable
+        private final Function<? super E, ?> key;
+        @Nullable
+        private final Object value;
+        private final Consumer<? super E> consumer;
+        @Nullable
+        private final Runnable onCancel;
+        private final AtomicBoolean done = new AtomicBoolean(false);
+
+        public Waiter(@Nullable Object listener, @Nullable EventFilter<? super E> filter, @Nullable Function<? super E, ?> key, @Nullable Object value, @NotNull Consumer<? super E> consumer, @Nullable Runnable onCancel) {
+            this.listener = listener;
+            this.filter = filter;
+            this.key = key;
+            this.value = value;
+            this.consumer = Objects.requireNonNull(consumer, "Consumer is null.");
+            this.onCancel = onCancel;
+        }
+
+        @Nullable
+        public Object getListener() {
+            return listener;
+        }
+
+        /**
+         * Claims the waiter, so that it won't be run or cancelled again.
+         *
+         * @return Whether this call claimed the waiter.
+         */
+        public boolean claim() {
+            return done.compareAndSet(false, true);
+        }
+    }
+}
@@ -16,13 +16,26 @@
 
 package com.fren_gor.eventManagerAPI.test;
 
+import com.fren_gor.eventManagerAPI.CircuitBreaker;
+import com.fren_gor.eventManagerAPI.EventFilter;
 import com.fren_gor.eventManagerAPI.EventManager;
+import com.fren_gor.eventManagerAPI.EventStream;
+import com.fren_gor.eventManagerAPI.Filters;
+import com.fren_gor.eventManagerAPI.LockMetrics;
+import com.fren_gor.eventManagerAPI.Region;
+import com.fren_gor.eventManagerAPI.Subscribe;
 import com.fren_gor.eventManagerAPI.test.FakeEvent2.Wrapper;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.Server;
+import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.event.Event;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.generator.ChunkGenerator;
@@ -31,6 +44,7 @@ import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.PluginLoader;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.PluginManagerImpl;
+import org.bukkit.util.BoundingBox;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.Test;
@@ -38,9 +52,27 @@ import org.junit.Test;
 import java.io.File;
 import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.logging.Logger;
 
 import static org.junit.Assert.*;
@@ -275,6 +307,928 @@ public class EventTest {
 
     }
 
+    @Test
+    public void bulkUnregisterTest() throws Exception {
+        EventManager api = new EventManager(new Pl());
+        PluginManager impl = Bukkit.getPluginManager();
+
+        Object l1 = new Object(), l2 = new Object(), l3 = "listener";
+        for (Object l : Arrays.asList(l1, l2, l3, this)) {
+            api.register(l, FakeEvent1.class, e -> ev1++);
+            api.register(l, FakeEvent2.class, EventPriority.HIGH, e -> ev2++);
+        }
+
+        api.unregisterAll(Arrays.asList(l1, l2));
+        impl.callEvent(new FakeEvent1());
+        impl.callEvent(new FakeEvent2());
+        assertEquals(2, ev1);
+        assertEquals(2, ev2);
+
+        api.unregisterAll(String.class);
+        impl.callEvent(new FakeEvent1());
+        assertEquals(3, ev1);
+
+        // The internal listener must survive
+        api.unregisterIf(l -> true);
+        impl.callEvent(new FakeEvent1());
+        impl.callEvent(new FakeEvent2());
+        assertEquals(3, ev1);
+        assertEquals(2, ev2);
+
+        Object internalListener = INTERNAL_LISTENER.get(api);
+        Object eventGroup = ((Map<Class<?>, Object>) EventManager_events.get(api)).get(PluginDisableEvent.class);
+        final Field eventListeners = eventGroup.getClass().getDeclaredField("eventListeners");
+        eventListeners.setAccessible(true);
+        Object listener = ((Object[]) eventListeners.get(eventGroup))[EventPriority.MONITOR.getSlot()];
+        final Field map = listener.getClass().getDeclaredField("map");
+        map.setAccessible(true);
+        assertEquals(1, ((Map<Object, List<Consumer<?>>>) map.get(listener)).get(internalListener).size());
+    }
+
+    @Test
+    public void scopeTest() throws ReflectiveOperationException {
+        EventManager api = new EventManager(new Pl());
+        PluginManager impl = Bukkit.getPluginManager();
+
+        api.register(this, FakeEvent1.class, e -> ev1++);
+
+        EventManager.Scope child;
+        try (EventManager.Scope scope = api.scope()) {
+            scope.register(this, FakeEvent1.class, e -> ev1++);
+            scope.register(this, FakeEvent2.class, EventPriority.HIGH, e -> ev2++);
+            child = scope.scope();
+            child.register(this, FakeEvent2.class, e -> ev2++);
+
+            impl.callEvent(new FakeEvent1());
+            impl.callEvent(new FakeEvent2());
+            assertEquals(2, ev1);
+            assertEquals(2, ev2);
+
+            child.close();
+            assertTrue(child.isClosed());
+            impl.callEvent(new FakeEvent2());
+            assertEquals(3, ev2);
+        }
+
+        // Only the consumer registered without a scope is left
+        impl.callEvent(new FakeEvent1());
+        impl.callEvent(new FakeEvent2());
+        assertEquals(3, ev1);
+        assertEquals(3, ev2);
+
+        EventManager.Scope parent = api.scope();
+        child = parent.scope();
+        child.register(this, FakeEvent2.class, e -> ev2++);
+        parent.close();
+        assertTrue(child.isClosed());
+        impl.callEvent(new FakeEvent2());
+        assertEquals(3, ev2);
+
+        EventManager.Scope closed = child;
+        assertThrows(IllegalStateException.class, () -> closed.register(this, FakeEvent1.class, e -> ev1++));
+        assertThrows(IllegalStateException.class, closed::scope);
+
+        // Consumers removed without closing the scope aren't kept by it
+        try (EventManager.Scope scope = api.scope()) {
+            Object listener = new Object();
+            for (int i = 0; i < 10; i++) {
+                scope.register(listener, FakeEvent1.class, e -> ev1++);
+                scope.register(listener, FakeEvent2.class, EventPriority.HIGH, e -> ev2++);
+                api.unregister(listener);
+            }
+            assertEquals(0, scopeRegistrations(scope));
+            scope.register(listener, FakeEvent1.class, e -> ev1++);
+            assertEquals(1, scopeRegistrations(scope));
+        }
+    }
+
+    @Test
+    public void registerAllTest() {
+        EventManager api = new EventManager(new Pl());
+        PluginManager impl = Bukkit.getPluginManager();
+
+        AnnotatedListener l1 = new AnnotatedListener(), l2 = new AnnotatedListener();
+        api.registerAll(l1);
+        api.registerAll(l2);
+
+        impl.callEvent(new FakeEvent1());
+        impl.callEvent(new FakeEvent2());
+
+        assertEquals(1, l1.ev1);
+        assertEquals(1, l1.ev2);
+        assertEquals(1, l1.inherited);
+        assertEquals(1, l2.ev1);
+
+        api.unregister(l1);
+        impl.callEvent(new FakeEvent1());
+        assertEquals(1, l1.ev1);
+        assertEquals(2, l2.ev1);
+
+        assertThrows(IllegalArgumentException.class, () -> api.registerAll(new Object() {
+            @Subscribe
+            public void invalid(String s) {
+            }
+        }));
+    }
+
+    @Test
+    public void registrarTest() {
+        EventManager api = new EventManager(new Pl());
+        try {
+            PluginManager impl = Bukkit.getPluginManager();
+            GeneratedListener l1 = new GeneratedListener(), l2 = new GeneratedListener();
+            int uses = EventTest_GeneratedListener_EventRegistrar.uses;
+
+            // Both the manager and scopes use the generated registrar
+            api.registerAll(l1);
+            EventManager.Scope scope = api.scope();
+            scope.registerAll(l2);
+            assertEquals(uses + 2, EventTest_GeneratedListener_EventRegistrar.uses);
+
+            impl.callEvent(new FakeEvent1());
+            scope.close();
+            impl.callEvent(new FakeEvent1());
+            assertEquals(2, l1.ev1);
+            assertEquals(1, l2.ev1);
+        } finally {
+            api.disable();
+        }
+    }
+
+    @Test
+    public void lockMetricsTest() {
+        EventManager api = new EventManager(new Pl());
+
+        assertSame(LockMetrics.EMPTY, api.getLockMetrics(FakeEvent1.class));
+
+        api.register(this, FakeEvent1.class, e -> ev1++);
+        api.register(this, FakeEvent1.class, EventPriority.HIGH, e -> ev1++);
+
+        PluginManager impl = Bukkit.getPluginManager();
+        impl.callEvent(new FakeEvent1());
+        impl.callEvent(new FakeEvent1());
+
+        assertEquals(4, ev1);
+
+        LockMetrics metrics = api.getLockMetrics(FakeEvent1.class);
+        // Synchronous calls only lock to rebuild the snapshot of each priority
+        assertEquals(2, metrics.getReadAcquisitions());
+        assertEquals(2, metrics.getWriteAcquisitions());
+        assertEquals(0, metrics.getContendedReads());
+        assertEquals(0, metrics.getContendedWrites());
+        assertTrue(metrics.getReadHoldNanos() >= 0);
+        assertEquals(metrics, api.getLockMetrics().get(FakeEvent1.class));
+
+        api.unregister(this);
+        LockMetrics diff = api.getLockMetrics(FakeEvent1.class).minus(metrics);
+        assertEquals(0, diff.getReadAcquisitions());
+        assertEquals(2, diff.getWriteAcquisitions());
+    }
+
+    @Test
+    public void parallelTest() throws Exception {
+        EventManager api = new EventManager(new Pl());
+        ExecutorService executor = Executors.newCachedThreadPool();
+        api.setParallelExecutor(executor);
+        try {
+            Thread caller = Thread.currentThread();
+            CountDownLatch latch = new CountDownLatch(2);
+            Function<FakeAsyncEvent, Consumer<FakeAsyncEvent>> task = e -> {
+                assertNotSame(caller, Thread.currentThread());
+                latch.countDown();
+                try {
+                    // Completes only if both tasks are running at the same time
+                    if (!latch.await(5, TimeUnit.SECONDS))
+                        return null;
+                } catch (InterruptedException ex) {
+                    return null;
+                }
+                return ev -> {
+                    assertSame(caller, Thread.currentThread());
+                    ev1++;
+                };
+            };
+
+            api.registerParallel(this, FakeAsyncEvent.class, 10, TimeUnit.SECONDS, task);
+            api.registerParallel(this, FakeAsyncEvent.class, 10, TimeUnit.SECONDS, task);
+            CountDownLatch interrupted = new CountDownLatch(1);
+            api.registerParallel(this, FakeAsyncEvent.class, 50, TimeUnit.MILLISECONDS, e -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException ex) {
+                    interrupted.countDown();
+                    return null;
+                }
+                return ev -> ev2++;
+            });
+            api.register(this, FakeAsyncEvent.class, e -> ev1++);
+
+            Bukkit.getPluginManager().callEvent(new FakeAsyncEvent());
+
+            assertEquals(3, ev1);
+            assertEquals(0, ev2);
+            // The timed out task is interrupted
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+
+            // Synchronous events run tasks on the calling thread
+            api.registerParallel(this, FakeEvent1.class, 1, TimeUnit.SECONDS, e -> {
+                assertSame(caller, Thread.currentThread());
+                return ev -> ev2++;
+            });
+
+            Bukkit.getPluginManager().callEvent(new FakeEvent1());
+
+            assertEquals(1, ev2);
+            assertThrows(IllegalArgumentException.class, () -> api.registerParallel(this, FakeEvent1.class, 0, TimeUnit.SECONDS, e -> null));
+
+            // The lock isn't held while waiting for the tasks, so they can register to the same event
+            AtomicInteger merged = new AtomicInteger();
+            api.registerParallel(this, FakeAsyncEvent.class, EventPriority.HIGHEST, 5, TimeUnit.SECONDS, e -> {
+                api.register(new Object(), FakeAsyncEvent.class, EventPriority.HIGHEST, ev -> {});
+                return ev -> merged.incrementAndGet();
+            });
+            Bukkit.getPluginManager().callEvent(new FakeAsyncEvent());
+            assertEquals(1, merged.get());
+        } finally {
+            api.disable();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void circuitBreakerTest() throws Exception {
+        EventManager api = new EventManager(new Pl());
+        PluginManager impl = Bukkit.getPluginManager();
+
+        CircuitBreaker breaker = CircuitBreaker.of(1, TimeUnit.SECONDS).withFailureThreshold(2).withCooldown(100, TimeUnit.MILLISECONDS);
+        api.register(this, FakeEvent1.class, breaker, e -> {
+            ev1++;
+            throw new RuntimeException("Expected exception");
+        });
+
+        for (int i = 0; i < 4; i++) {
+            impl.callEvent(new FakeEvent1());
+        }
+        assertEquals(2, ev1);
+
+        // After the cooldown the consumer is run once and tripped again
+        Thread.sleep(150);
+        impl.callEvent(new FakeEvent1());
+        impl.callEvent(new FakeEvent1());
+        assertEquals(3, ev1);
+
+        // Asynchronous events can be abandoned when the budget expires
+        ExecutorService executor = Executors.newCachedThreadPool();
+        api.setParallelExecutor(executor);
+        try {
+            CountDownLatch interrupted = new CountDownLatch(1);
+            api.register(this, FakeAsyncEvent.class, CircuitBreaker.of(50, TimeUnit.MILLISECONDS).withFailureThreshold(1).withHardTimeout(true), e -> {
+                ev2++;
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException ignored) {
+                    interrupted.countDown();
+                }
+            });
+
+            long start = System.nanoTime();
+            impl.callEvent(new FakeAsyncEvent());
+            impl.callEvent(new FakeAsyncEvent());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            assertEquals(1, ev2);
+            // The abandoned consumer is interrupted
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        } finally {
+            api.disable();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void breakerInterruptTest() throws Exception {
+        EventManager api = new EventManager(new Pl());
+        ExecutorService executor = Executors.newCachedThreadPool();
+        api.setParallelExecutor(executor);
+        try {
+            PluginManager impl = Bukkit.getPluginManager();
+            AtomicInteger runs = new AtomicInteger();
+            api.register(this, FakeAsyncEvent.class, CircuitBreaker.of(50, TimeUnit.MILLISECONDS).withFailureThreshold(2).withHardTimeout(true), e -> {
+                runs.incrementAndGet();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException ignored) {
+                }
+            });
+
+            impl.callEvent(new FakeAsyncEvent());
+            // A call interrupted while waiting for the consumer doesn't reset the failures
+            Thread.currentThread().interrupt();
+            impl.callEvent(new FakeAsyncEvent());
+            assertTrue(Thread.interrupted());
+            impl.callEvent(new FakeAsyncEvent());
+
+            // The second timeout has tripped the consumer
+            Thread.sleep(100);
+            int before = runs.get();
+            impl.callEvent(new FakeAsyncEvent());
+            assertEquals(before, runs.get());
+        } finally {
+            api.disable();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void flightRecorderTest() throws Exception {
+        EventManager api = new EventManager(new Pl());
+        Path file = Files.createTempFile("eventmanagerapi", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.fren_gor.eventManagerAPI.Dispatch").withThreshold(Duration.ZERO);
+            recording.enable("com.fren_gor.eventManagerAPI.Registration");
+            recording.start();
+
+            api.register(this, FakeEvent1.class, EventPriority.MONITOR, e -> ev1++);
+            Bukkit.getPluginManager().callEvent(new FakeEvent1());
+            api.unregister(this);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> recorded = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+
+        RecordedEvent dispatch = recorded.stream().filter(e -> e.getEventType().getName().equals("com.fren_gor.eventManagerAPI.Dispatch")
+                && e.getClass("eventClass").getName().equals(FakeEvent1.class.getName()) && e.getString("priority").equals("MONITOR")).findAny().orElse(null);
+        assertNotNull(dispatch);
+        assertEquals(1, dispatch.getInt("handlers"));
+
+        assertTrue(recorded.stream().anyMatch(e -> e.getEventType().getName().equals("com.fren_gor.eventManagerAPI.Registration")
+                && e.getString("operation").equals("register")));
+        assertTrue(recorded.stream().anyMatch(e -> e.getEventType().getName().equals("com.fren_gor.eventManagerAPI.Registration")
+                && e.getString("operation").equals("unregister")));
+    }
+
+    @Test
+    public void mainThreadDispatchTest() throws Exception {
+        EventManager api = new EventManager(new Pl());
+        try {
+            PluginManager impl = Bukkit.getPluginManager();
+            AtomicInteger calls = new AtomicInteger();
+            int listeners = 1000;
+            // Hook the bukkit listener on this thread, since PluginManagerImpl isn't thread-safe
+            api.register(this, FakeEvent1.class, EventPriority.LOW, e -> {});
+            Thread registerer = new Thread(() -> {
+                for (int i = 0; i < listeners; i++) {
+                    api.register(new Object(), FakeEvent1.class, EventPriority.LOW, e -> calls.incrementAndGet());
+                }
+            });
+            registerer.start();
+            while (registerer.isAlive()) {
+                impl.callEvent(new FakeEvent1());
+            }
+            registerer.join();
+
+            // Every off-thread registration is visible to the next call
+            calls.set(0);
+            impl.callEvent(new FakeEvent1());
+            assertEquals(listeners, calls.get());
+
+            // Unchanged listeners are called without locking
+            LockMetrics metrics = api.getLockMetrics(FakeEvent1.class);
+            impl.callEvent(new FakeEvent1());
+            assertEquals(0, api.getLockMetrics(FakeEvent1.class).minus(metrics).getReadAcquisitions());
+
+            // Consumers can unregister themselves while the event is being called
+            AtomicInteger self = new AtomicInteger();
+            api.register(this, FakeEvent1.class, EventPriority.LOW, e -> {
+                self.incrementAndGet();
+                api.unregister(this);
+            });
+            impl.callEvent(new FakeEvent1());
+            impl.callEvent(new FakeEvent1());
+            assertEquals(1, self.get());
+        } finally {
+            api.disable();
+        }
+    }
+
+    @Test
+    public void concurrentDispatchTest() throws Exception {
+        EventManager api = new EventManager(new Pl(), true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertTrue(api.isConcurrentDispatch());
+            EventManager other = new EventManager(new Pl());
+            assertFalse(other.isConcurrentDispatch());
+            other.disable();
+            AtomicInteger calls = new AtomicInteger(), churn = new AtomicInteger();
+            int threads = 4, events = 10000;
+            // Hook the bukkit listener on this thread, since PluginManagerImpl isn't thread-safe
+            api.register(this, FakeAsyncEvent.class, e -> calls.incrementAndGet());
+            LockMetrics metrics = api.getLockMetrics(FakeAsyncEvent.class);
+
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicBoolean done = new AtomicBoolean();
+            Thread registerer = new Thread(() -> {
+                while (!done.get()) {
+                    Object listener = new Object();
+                    api.register(listener, FakeAsyncEvent.class, e -> churn.incrementAndGet());
+                    api.unregister(listener);
+                }
+            });
+            registerer.start();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < events; j++) {
+                        api.fire(new FakeAsyncEvent());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+            done.set(true);
+            registerer.join();
+
+            // Every event reached the permanent consumer, even while registrations were changing
+            assertEquals(threads * events, calls.get());
+            // No event took the lock
+            LockMetrics diff = api.getLockMetrics(FakeAsyncEvent.class).minus(metrics);
+            assertEquals(0, diff.getReadAcquisitions());
+            assertTrue(diff.getWriteAcquisitions() > 0);
+
+            // Registrations are visible to the next call
+            calls.set(0);
+            churn.set(0);
+            api.register(new Object(), FakeAsyncEvent.class, e -> churn.incrementAndGet());
+            executor.submit(() -> api.fire(new FakeAsyncEvent())).get(30, TimeUnit.SECONDS);
+            assertEquals(1, calls.get());
+            assertEquals(1, churn.get());
+        } finally {
+            executor.shutdownNow();
+            api.disable();
+        }
+    }
+
+    @Test
+    public void awaitTest() throws Exception {
+        EventManager api = new EventManager(new Pl());
+        try {
+            PluginManager impl = Bukkit.getPluginManager();
+
+            // Consumers registered once are called only by the next event
+            AtomicInteger once = new AtomicInteger();
+            api.registerOnce(this, FakeEvent1.class, e -> once.incrementAndGet());
+            impl.callEvent(new FakeEvent1());
+            impl.callEvent(new FakeEvent1());
+            assertEquals(1, once.get());
+
+            // and can be unregistered before being called
+            Object listener = new Object();
+            api.registerOnce(listener, FakeEvent1.class, EventPriority.HIGH, e -> once.incrementAndGet());
+            api.unregister(listener);
+            impl.callEvent(new FakeEvent1());
+            assertEquals(1, once.get());
+
+            CompletableFuture<FakeCancellableEvent> future = api.await(FakeCancellableEvent.class, Filters.notCancelled(), 10, TimeUnit.SECONDS);
+            impl.callEvent(new FakeCancellableEvent(true));
+            assertFalse(future.isDone());
+            FakeCancellableEvent event = new FakeCancellableEvent(false);
+            impl.callEvent(event);
+            assertSame(event, future.getNow(null));
+
+            // Waiters are indexed by key
+            Function<FakeLocationEvent, Object> key = e -> (int) e.getLocation().getX();
+            CompletableFuture<FakeLocationEvent> five = api.await(FakeLocationEvent.class, key, 5, 10, TimeUnit.SECONDS);
+            CompletableFuture<FakeLocationEvent> six = api.await(FakeLocationEvent.class, key, 6, 10, TimeUnit.SECONDS);
+            api.fire(new FakeLocationEvent(new Location(null, 3, 0, 0)));
+            assertFalse(five.isDone());
+            FakeLocationEvent located = api.fire(new FakeLocationEvent(new Location(null, 5, 0, 0)));
+            assertSame(located, five.getNow(null));
+            assertFalse(six.isDone());
+
+            // Cancelled futures are removed
+            assertTrue(six.cancel(false));
+            api.fire(new FakeLocationEvent(new Location(null, 6, 0, 0)));
+            assertTrue(six.isCancelled());
+
+            // Key functions are removed with their last waiter
+            Object eventGroup = ((Map<Class<?>, Object>) EventManager_events.get(api)).get(FakeLocationEvent.class);
+            Field eventListeners = eventGroup.getClass().getDeclaredField("eventListeners");
+            eventListeners.setAccessible(true);
+            Object normal = ((Object[]) eventListeners.get(eventGroup))[EventPriority.NORMAL.getSlot()];
+            Field waiters = normal.getClass().getDeclaredField("waiters");
+            waiters.setAccessible(true);
+            Object normalWaiters = waiters.get(normal);
+            Field keyed = normalWaiters.getClass().getDeclaredField("keyed");
+            keyed.setAccessible(true);
+            assertTrue(((Map<?, ?>) keyed.get(normalWaiters)).isEmpty());
+
+            CompletableFuture<FakeEvent1> timeout = api.await(FakeEvent1.class, e -> true, 50, TimeUnit.MILLISECONDS);
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> timeout.get(10, TimeUnit.SECONDS));
+            assertTrue(ex.getCause() instanceof TimeoutException);
+
+            // Disabling the manager cancels the pending waiters
+            CompletableFuture<FakeEvent1> pending = api.await(FakeEvent1.class, e -> true, 10, TimeUnit.SECONDS);
+            api.disable();
+            assertTrue(pending.isCancelled());
+        } finally {
+            api.disable();
+        }
+
+        // Disabling the plugin cancels them too
+        Pl other = new Pl();
+        EventManager otherApi = new EventManager(other);
+        try {
+            CompletableFuture<FakeEvent1> pending = otherApi.await(FakeEvent1.class, e -> true, 10, TimeUnit.SECONDS);
+            Bukkit.getPluginManager().callEvent(new PluginDisableEvent(other));
+            assertTrue(pending.isCancelled());
+        } finally {
+            otherApi.disable();
+        }
+    }
+
+    @Test
+    public void expireTest() throws Exception {
+        Pl pl = new Pl();
+        EventManager api = new EventManager(pl);
+        try {
+            PluginManager impl = Bukkit.getPluginManager();
+            AtomicInteger calls = new AtomicInteger(), longCalls = new AtomicInteger(), scoped = new AtomicInteger();
+            Object listener = new Object();
+            // 100ms are 2 ticks
+            api.register(listener, FakeEvent1.class, 100, TimeUnit.MILLISECONDS, e -> calls.incrementAndGet());
+            api.register(this, FakeEvent1.class, EventPriority.HIGH, 100, TimeUnit.MILLISECONDS, e -> calls.incrementAndGet());
+            // Longer than a round of the wheel
+            api.register(this, FakeEvent1.class, 1000, TimeUnit.SECONDS, e -> longCalls.incrementAndGet());
+            // Huge ttls don't overflow
+            AtomicInteger foreverCalls = new AtomicInteger();
+            api.register(listener, FakeEvent1.class, Long.MAX_VALUE, TimeUnit.DAYS, e -> foreverCalls.incrementAndGet());
+            EventManager.Scope scope = api.scope();
+            scope.register(this, FakeEvent1.class, 1, TimeUnit.MILLISECONDS, e -> scoped.incrementAndGet());
+            assertEquals(1, pendingTasks(pl));
+
+            impl.callEvent(new FakeEvent1());
+            assertEquals(2, calls.get());
+            assertEquals(1, scoped.get());
+
+            Bukkit.tick();
+            impl.callEvent(new FakeEvent1());
+            assertEquals(4, calls.get());
+            assertEquals(1, scoped.get());
+
+            Bukkit.tick();
+            impl.callEvent(new FakeEvent1());
+            assertEquals(4, calls.get());
+            assertEquals(3, longCalls.get());
+
+            for (int i = 0; i < 600; i++) {
+                Bukkit.tick();
+            }
+            impl.callEvent(new FakeEvent1());
+            assertEquals(4, longCalls.get());
+            assertEquals(4, foreverCalls.get());
+            // The expired consumer isn't kept by the scope
+            assertEquals(0, scopeRegistrations(scope));
+            scope.close();
+
+            // Unregistered consumers don't keep the task alive
+            api.unregister(this);
+            api.unregister(listener);
+            Bukkit.tick();
+            assertEquals(0, pendingTasks(pl));
+
+            // The task is started again by the next registration
+            api.register(listener, FakeEvent1.class, 50, TimeUnit.MILLISECONDS, e -> calls.incrementAndGet());
+            assertEquals(1, pendingTasks(pl));
+            api.disable();
+            assertEquals(0, pendingTasks(pl));
+            assertFalse(hasExpirations(api));
+        } finally {
+            api.disable();
+        }
+
+        // Disabling the plugin clears the expirations too
+        Pl other = new Pl();
+        EventManager otherApi = new EventManager(other);
+        try {
+            otherApi.register(this, FakeEvent1.class, 1000, TimeUnit.SECONDS, e -> {});
+            assertTrue(hasExpirations(otherApi));
+            Bukkit.getPluginManager().callEvent(new PluginDisableEvent(other));
+            assertEquals(0, pendingTasks(other));
+            assertFalse(hasExpirations(otherApi));
+        } finally {
+            otherApi.disable();
+        }
+    }
+
+    @Test
+    public void foliaExpireTest() {
+        Pl pl = new Pl();
+        EventManager api = new EventManager(pl);
+        // The BukkitScheduler isn't supported by Folia
+        Bukkit.setSchedulers(false, true);
+        try {
+            PluginManager impl = Bukkit.getPluginManager();
+            AtomicInteger calls = new AtomicInteger();
+            api.register(this, FakeEvent1.class, 50, TimeUnit.MILLISECONDS, e -> calls.incrementAndGet());
+            assertEquals(1, pendingTasks(pl));
+            impl.callEvent(new FakeEvent1());
+            assertEquals(1, calls.get());
+
+            // The task is run by the global region scheduler
+            Bukkit.tick();
+            impl.callEvent(new FakeEvent1());
+            assertEquals(1, calls.get());
+            assertEquals(0, pendingTasks(pl));
+
+            // Registrations are rejected if no scheduler is supported
+            Bukkit.setSchedulers(false, false);
+            assertThrows(IllegalStateException.class, () -> api.register(this, FakeEvent1.class, 50, TimeUnit.MILLISECONDS, e -> calls.incrementAndGet()));
+            impl.callEvent(new FakeEvent1());
+            assertEquals(1, calls.get());
+        } finally {
+            Bukkit.setSchedulers(true, true);
+            api.disable();
+        }
+    }
+
+    private static boolean hasExpirations(EventManager api) throws ReflectiveOperationException {
+        Field expirations = EventManager.class.getDeclaredField("expirations");
+        expirations.setAccessible(true);
+        Object wheel = expirations.get(api);
+        Method isEmpty = wheel.getClass().getDeclaredMethod("isEmpty");
+        isEmpty.setAccessible(true);
+        return !(boolean) isEmpty.invoke(wheel);
+    }
+
+    private static int scopeRegistrations(EventManager.Scope scope) throws ReflectiveOperationException {
+        Field registrations = EventManager.Scope.class.getDeclaredField("registrations");
+        registrations.setAccessible(true);
+        return ((Map<?, Map<?, ?>>) registrations.get(scope)).values().stream().mapToInt(Map::size).sum();
+    }
+
+    private static long pendingTasks(Plugin plugin) {
+        return Bukkit.getScheduler().getPendingTasks().stream().filter(t -> t.getOwner() == plugin).count();
+    }
+
+    @Test
+    public void filterTest() {
+        EventManager api = new EventManager(new Pl());
+        try {
+            PluginManager impl = Bukkit.getPluginManager();
+            AtomicInteger tests = new AtomicInteger(), calls = new AtomicInteger();
+            EventFilter<FakeCancellableEvent> counting = e -> {
+                tests.incrementAndGet();
+                return true;
+            };
+            EventFilter<Event> rejecting = e -> {
+                tests.incrementAndGet();
+                return false;
+            };
+
+            // Equal filters are tested once per event
+            for (int i = 0; i < 10; i++) {
+                api.register(this, FakeCancellableEvent.class, counting, e -> calls.incrementAndGet());
+                api.register(this, FakeCancellableEvent.class, rejecting, e -> calls.incrementAndGet());
+                api.register(this, FakeCancellableEvent.class, Filters.notCancelled(), e -> calls.incrementAndGet());
+            }
+            impl.callEvent(new FakeCancellableEvent(false));
+            assertEquals(2, tests.get());
+            assertEquals(20, calls.get());
+
+            tests.set(0);
+            calls.set(0);
+            impl.callEvent(new FakeCancellableEvent(true));
+            assertEquals(2, tests.get());
+            assertEquals(10, calls.get());
+
+            // Filters see the changes made by the consumers called before them
+            api.unregister(this);
+            tests.set(0);
+            calls.set(0);
+            api.register(this, FakeCancellableEvent.class, Filters.notCancelled(), e -> calls.incrementAndGet());
+            api.register(this, FakeCancellableEvent.class, counting, e -> calls.incrementAndGet());
+            api.register(this, FakeCancellableEvent.class, e -> e.setCancelled(true));
+            api.register(this, FakeCancellableEvent.class, Filters.notCancelled(), e -> calls.incrementAndGet());
+            api.register(this, FakeCancellableEvent.class, counting.and(Filters.notCancelled()), e -> calls.incrementAndGet());
+            api.register(this, FakeCancellableEvent.class, counting, e -> calls.incrementAndGet());
+            api.register(this, FakeCancellableEvent.class, EventPriority.HIGH, Filters.notCancelled(), e -> calls.incrementAndGet());
+            impl.callEvent(new FakeCancellableEvent(false));
+            assertEquals(3, calls.get());
+            assertEquals(2, tests.get());
+
+            assertEquals(Filters.world("arena1").and(Filters.notCancelled()), Filters.world("arena1").and(Filters.notCancelled()));
+            assertEquals(Filters.world("a").and(Filters.world("b")).and(Filters.world("c")), Filters.world("a").and(Filters.world("b").and(Filters.world("c"))));
+            assertEquals(Filters.permission("p"), Filters.permission("p").negate().negate());
+            assertNotEquals(Filters.world("a").and(Filters.world("b")), Filters.world("a").or(Filters.world("b")));
+            assertFalse(Filters.world("arena1").test(new FakeEvent1()));
+            assertFalse(Filters.permission("p").test(new FakeEvent1()));
+            assertTrue(Filters.notCancelled().test(new FakeEvent1()));
+        } finally {
+            api.disable();
+        }
+    }
+
+    @Test
+    public void unhookTest() {
+        EventManager api = new EventManager(new Pl());
+        Wrapper handlerList = (Wrapper) FakeEvent2.getHandlerList();
+
+        api.register(this, FakeEvent1.class, e -> ev1++);
+        api.register(this, FakeEvent2.class, EventPriority.LOWEST, e -> ev2++);
+        api.register(this, FakeEvent2.class, EventPriority.NORMAL, e -> ev2++);
+        api.register(this, FakeEvent2.class, EventPriority.MONITOR, e -> ev2++);
+
+        // Only the HandlerList of the unregistered event is touched
+        int count = handlerList.getUnregisterCount();
+        api.unregisterEvent(FakeEvent1.class);
+        assertEquals(count, handlerList.getUnregisterCount());
+
+        // Every priority is unhooked at once
+        api.disable();
+        assertEquals(count + 1, handlerList.getUnregisterCount());
+    }
+
+    @Test
+    public void streamTest() {
+        EventManager api = new EventManager(new Pl());
+        try {
+            PluginManager impl = Bukkit.getPluginManager();
+            AtomicInteger sequence = new AtomicInteger();
+            List<Integer> values = new ArrayList<>();
+
+            api.stream(FakeEvent1.class, EventPriority.LOWEST)
+                    .map(e -> sequence.incrementAndGet())
+                    .filter(i -> i != 3)
+                    .map(i -> i / 2)
+                    .distinctUntilChanged()
+                    .subscribe(this, values::add);
+            for (int i = 0; i < 6; i++) {
+                impl.callEvent(new FakeEvent1());
+            }
+            assertEquals(Arrays.asList(0, 1, 2, 3), values);
+
+            // Every subscription has its own state
+            List<Integer> other = new ArrayList<>();
+            EventStream<Integer> stream = api.stream(FakeEvent1.class, EventPriority.LOWEST).map(e -> 1).distinctUntilChanged();
+            stream.subscribe(this, other::add);
+            stream.subscribe(this, other::add);
+            impl.callEvent(new FakeEvent1());
+            impl.callEvent(new FakeEvent1());
+            assertEquals(Arrays.asList(1, 1), other);
+
+            // Async boundaries are added only when asked
+            List<Runnable> tasks = new ArrayList<>();
+            List<Integer> later = new ArrayList<>();
+            api.stream(FakeEvent1.class, EventPriority.LOWEST).map(e -> 5).async(tasks::add).subscribe(this, later::add);
+            impl.callEvent(new FakeEvent1());
+            assertTrue(later.isEmpty());
+            tasks.forEach(Runnable::run);
+            assertEquals(Arrays.asList(5), later);
+
+            // Subscriptions are unregistered with their listener
+            api.unregister(this);
+            values.clear();
+            impl.callEvent(new FakeEvent1());
+            assertTrue(values.isEmpty());
+        } finally {
+            api.disable();
+        }
+    }
+
+    @Test
+    public void fireTest() throws Exception {
+        EventManager api = new EventManager(new Pl());
+        EventManager other = new EventManager(new Pl());
+        try {
+            List<EventPriority> called = new ArrayList<>();
+            api.register(this, FakeEvent1.class, EventPriority.MONITOR, e -> called.add(EventPriority.MONITOR));
+            api.register(this, FakeEvent1.class, EventPriority.LOW, e -> called.add(EventPriority.LOW));
+            api.register(this, FakeEvent1.class, EventPriority.HIGH, e -> called.add(EventPriority.HIGH));
+            AtomicInteger otherCalls = new AtomicInteger();
+            other.register(this, FakeEvent1.class, e -> otherCalls.incrementAndGet());
+
+            // Only the consumers of the manager are called, in priority order
+            FakeEvent1 event = new FakeEvent1();
+            assertSame(event, api.fire(event));
+            assertEquals(Arrays.asList(EventPriority.LOW, EventPriority.HIGH, EventPriority.MONITOR), called);
+            assertEquals(0, otherCalls.get());
+
+            // Events not registered to the manager are ignored
+            api.fire(new FakeEvent2());
+
+            called.clear();
+            api.fire(new FakeEvent1(), true);
+            assertEquals(3, called.size());
+            assertEquals(1, otherCalls.get());
+
+            // Bukkit threading rules are enforced
+            assertThrows(IllegalStateException.class, () -> api.fire(new FakeAsyncEvent()));
+            AtomicInteger asyncCalls = new AtomicInteger();
+            api.register(this, FakeAsyncEvent.class, EventPriority.MONITOR, e -> asyncCalls.incrementAndGet());
+            Throwable[] thrown = new Throwable[1];
+            Thread thread = new Thread(() -> {
+                try {
+                    api.fire(new FakeAsyncEvent());
+                    api.fire(new FakeEvent1());
+                } catch (Throwable t) {
+                    thrown[0] = t;
+                }
+            });
+            thread.start();
+            thread.join();
+            assertEquals(1, asyncCalls.get());
+            assertTrue(thrown[0] instanceof IllegalStateException);
+        } finally {
+            api.disable();
+            other.disable();
+        }
+        assertThrows(IllegalStateException.class, () -> api.fire(new FakeEvent1()));
+    }
+
+    @Test
+    public void regionTest() {
+        EventManager api = new EventManager(new Pl());
+        try {
+            World a = world("a"), b = world("b");
+            List<String> called = new ArrayList<>();
+            Function<FakeLocationEvent, Location> locator = FakeLocationEvent::getLocation;
+            api.register(this, FakeLocationEvent.class, Region.of(a, new BoundingBox(0, 0, 0, 10, 10, 10)), locator, e -> called.add("r1"));
+            api.register(this, FakeLocationEvent.class, Region.of("a", new BoundingBox(5, 0, 5, 20, 10, 20)), locator, e -> called.add("r2"));
+            api.register(this, FakeLocationEvent.class, Region.of(a, new BoundingBox(-10000, 0, -10000, 10000, 256, 10000)), locator, e -> called.add("large"));
+            Object other = new Object();
+            api.register(other, FakeLocationEvent.class, Region.of(b, new BoundingBox(0, 0, 0, 10, 10, 10)), locator, e -> called.add("r4"));
+
+            api.fire(new FakeLocationEvent(new Location(a, 1, 1, 1)));
+            called.sort(null);
+            assertEquals(Arrays.asList("large", "r1"), called);
+
+            called.clear();
+            api.fire(new FakeLocationEvent(new Location(a, 6, 1, 6)));
+            called.sort(null);
+            assertEquals(Arrays.asList("large", "r1", "r2"), called);
+
+            // The maximum corner is excluded
+            called.clear();
+            api.fire(new FakeLocationEvent(new Location(a, 10, 1, 1)));
+            assertEquals(Arrays.asList("large"), called);
+
+            called.clear();
+            api.fire(new FakeLocationEvent(new Location(b, 1, 1, 1)));
+            api.fire(new FakeLocationEvent(new Location(b, 1, 11, 1)));
+            api.fire(new FakeLocationEvent(null));
+            assertEquals(Arrays.asList("r4"), called);
+
+            called.clear();
+            api.unregister(other);
+            api.fire(new FakeLocationEvent(new Location(b, 1, 1, 1)));
+            assertTrue(called.isEmpty());
+
+            // Chunk grids are rebuilt only for the locator whose handlers changed
+            Function<FakeLocationEvent, Location> otherLocator = e -> e.getLocation();
+            api.register(other, FakeLocationEvent.class, Region.of(a, new BoundingBox(0, 0, 0, 2, 2, 2)), otherLocator, e -> called.add("r5"));
+            api.fire(new FakeLocationEvent(new Location(a, 1, 1, 1)));
+            api.register(this, FakeLocationEvent.class, Region.of(a, new BoundingBox(0, 0, 0, 3, 3, 3)), locator, e -> called.add("r6"));
+            api.fire(new FakeLocationEvent(new Location(a, 1, 1, 1)));
+            called.sort(null);
+            assertEquals(Arrays.asList("large", "large", "r1", "r1", "r5", "r5", "r6"), called);
+
+            called.clear();
+            api.unregister(other);
+            api.fire(new FakeLocationEvent(new Location(a, 1, 1, 1)));
+            called.sort(null);
+            assertEquals(Arrays.asList("large", "r1", "r6"), called);
+
+            Region region = Region.of(a, new BoundingBox(0, 0, 0, 10, 10, 10));
+            assertEquals(Region.of("a", new BoundingBox(10, 10, 10, 0, 0, 0)), region);
+            assertTrue(region.contains(new Location(a, 0, 0, 0)));
+            assertFalse(region.contains(new Location(b, 0, 0, 0)));
+        } finally {
+            api.disable();
+        }
+    }
+
+    private static World world(String name) {
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[]{World.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return name;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return null;
+            }
+        });
+    }
+
     @Test
     public void disabledErrorTest() {
         Pl pl = new Pl();
@@ -298,6 +1252,41 @@ public class EventTest {
         api.disable(); // Shouldn't throws errors
     }
 
+    public static class BaseListener {
+
+        public int inherited = 0;
+
+        @Subscribe(priority = EventPriority.LOW)
+        public void onInherited(FakeEvent1 e) {
+            inherited++;
+        }
+    }
+
+    public static class AnnotatedListener extends BaseListener {
+
+        public int ev1 = 0, ev2 = 0;
+
+        @Subscribe
+        public void onEvent1(FakeEvent1 e) {
+            ev1++;
+        }
+
+        @Subscribe(priority = EventPriority.HIGH)
+        private void onEvent2(FakeEvent2 e) {
+            ev2++;
+        }
+    }
+
+    public static class GeneratedListener {
+
+        public int ev1 = 0;
+
+        @Subscribe
+        public void onEvent1(FakeEvent1 e) {
+            ev1++;
+        }
+    }
+
     private static class Pl implements Plugin {
 
         public boolean enabled = true;
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fren_gor.eventManagerAPI.test;
+
+import com.fren_gor.eventManagerAPI.EventRegistry;
+import com.fren_gor.eventManagerAPI.ListenerRegistrar;
+import org.bukkit.event.EventPriority;
+
+/**
+ * Written like the registrars generated by the annotation processor, counting how many times it is used.
+ */
+public final class EventTest_GeneratedListener_EventRegistrar implements ListenerRegistrar<EventTest.GeneratedListener> {
+
+    public static int uses = 0;
+
+    public static void register(EventRegistry manager, EventTest.GeneratedListener listener) {
+        uses++;
+        manager.register(listener, FakeEvent1.class, EventPriority.NORMAL, listener::onEvent1);
+    }
+
+    @Override
+    public void registerAll(EventRegistry manager, EventTest.GeneratedListener listener) {
+        register(manager, listener);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2021 fren_gor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.papermc.paper.threadedregions.scheduler;
+
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Stub of a task scheduled by a scheduler of Folia.
+ */
+public interface ScheduledTask {
+
+    @NotNull
+    Plugin getOwningPlugin();
+
+    @NotNull
+    CancelledState cancel();
+
+    boolean isCancelled();
+
+    enum CancelledState {
+        CANCELLED_BY_CALLER,
+        ALREADY_CANCELLED
+    }
+}
@@ -16,14 +16,163 @@
 
 package org.bukkit;
 
+import io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.PluginManagerImpl;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Bukkit {
 
     private static final PluginManagerImpl pluginManager = new PluginManagerImpl();
+    private static final Thread primaryThread = Thread.currentThread();
+    private static final List<Task> tasks = new ArrayList<>();
+    private static volatile boolean bukkitScheduler = true, globalRegionScheduler = true;
+    private static final BukkitScheduler scheduler = (BukkitScheduler) Proxy.newProxyInstance(BukkitScheduler.class.getClassLoader(), new Class<?>[]{BukkitScheduler.class}, (proxy, method, args) -> {
+        switch (method.getName()) {
+            case "runTaskTimer":
+                if (!bukkitScheduler) {
+                    // Like on Folia
+                    throw new UnsupportedOperationException();
+                }
+                if (args[1] instanceof Runnable) {
+                    synchronized (tasks) {
+                        Task task = new Task(tasks.size() + 1, (Plugin) args[0], (Runnable) args[1]);
+                        tasks.add(task);
+                        return task;
+                    }
+                }
+                break;
+            case "getPendingTasks":
+                synchronized (tasks) {
+                    List<BukkitTask> pending = new ArrayList<>();
+                    for (Task t : tasks) {
+                        if (!t.isCancelled())
+                            pending.add(t);
+                    }
+                    return pending;
+                }
+        }
+        throw new UnsupportedOperationException(method.getName());
+    });
 
     public static PluginManager getPluginManager() {
         return pluginManager;
     }
+
+    public static BukkitScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Only available on Folia.
+     */
+    public static GlobalRegionScheduler getGlobalRegionScheduler() {
+        if (!globalRegionScheduler) {
+            throw new UnsupportedOperationException();
+        }
+        return (plugin, consumer, initialDelayTicks, periodTicks) -> {
+            synchronized (tasks) {
+                ScheduledTask[] scheduled = new ScheduledTask[1];
+                Task task = new Task(tasks.size() + 1, plugin, () -> consumer.accept(scheduled[0]));
+                scheduled[0] = task.asScheduledTask();
+                tasks.add(task);
+                return scheduled[0];
+            }
+        };
+    }
+
+    /**
+     * Sets which schedulers are supported, to simulate Folia and other servers.
+     */
+    public static void setSchedulers(boolean bukkit, boolean globalRegion) {
+        bukkitScheduler = bukkit;
+        globalRegionScheduler = globalRegion;
+    }
+
+    public static boolean isPrimaryThread() {
+        return Thread.currentThread() == primaryThread;
+    }
+
+    /**
+     * Runs every pending repeating task once, as if a tick has passed. Delays and periods are ignored.
+     */
+    public static void tick() {
+        List<Task> toRun;
+        synchronized (tasks) {
+            toRun = new ArrayList<>(tasks);
+        }
+        for (Task t : toRun) {
+            if (!t.isCancelled())
+                t.runnable.run();
+        }
+    }
+
+    private static final class Task implements BukkitTask {
+
+        private final int id;
+        private final Plugin owner;
+        private final Runnable runnable;
+        private volatile boolean cancelled = false;
+
+        public Task(int id, Plugin owner, Runnable runnable) {
+            this.id = id;
+            this.owner = owner;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public int getTaskId() {
+            return id;
+        }
+
+        @Override
+        public @NotNull Plugin getOwner() {
+            return owner;
+        }
+
+        @Override
+        public boolean isSync() {
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public ScheduledTask asScheduledTask() {
+            return new ScheduledTask() {
+                @Override
+                public @NotNull Plugin getOwningPlugin() {
+                    return owner;
+                }
+
+                @Override
+                public @NotNull CancelledState cancel() {
+                    if (cancelled)
+                        return CancelledState.ALREADY_CANCELLED;
+                    cancelled = true;
+                    return CancelledState.CANCELLED_BY_CALLER;
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return cancelled;
+                }
+            };
+        }
+    }
 }